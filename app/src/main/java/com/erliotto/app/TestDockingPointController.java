@@ -21,13 +21,13 @@ public class TestDockingPointController {
     public TestDockingPointController(
             DockingPoint<StringResponse> dockingPoint
     ) {
-        this.dockingPoint = dockingPoint;
+        this.dockingPoint = dockingPoint
+                .registerDefault(String.class, rawResponse -> new StringResponse(rawResponse))
+                .freeze();
     }
 
     @GetMapping(value = "ping")
     public String ping() {
-        dockingPoint.registerDefault(String.class, rawResponse -> new StringResponse(rawResponse));
-
         HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
         final String url = request.getRequestURL().toString().replaceFirst("ping", "test");
         try {
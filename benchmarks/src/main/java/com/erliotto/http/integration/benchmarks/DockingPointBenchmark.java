@@ -0,0 +1,89 @@
+package com.erliotto.http.integration.benchmarks;
+
+import com.erliotto.http.integration.core.DockingPoint;
+import com.erliotto.http.integration.core.HttpResultProvider;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+
+// dispatchResponse/acceptResponse measured through call() over an in-memory provider
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DockingPointBenchmark {
+    private static final String URL = "http://localhost/items";
+
+    @Param({"1", "100", "10000"})
+    public int itemCount;
+
+    @Param({"1", "16", "64"})
+    public int registrationCount;
+
+    private DockingPoint<Payloads.ItemsResponse> directClassDockingPoint;
+    private DockingPoint<Payloads.ItemsResponse> mapperFunctionDockingPoint;
+    private DockingPoint<Payloads.ItemsResponse> unmatchedDockingPoint;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        final ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        final byte[] body = Payloads.items(objectMapper, itemCount);
+        final HttpResultProvider okProvider = (httpMethod, url, httpHeaders, payload) -> new HttpResultProvider.Result(HttpStatus.OK, body);
+        final HttpResultProvider notFoundProvider = (httpMethod, url, httpHeaders, payload) -> new HttpResultProvider.Result(HttpStatus.NOT_FOUND, body);
+
+        directClassDockingPoint = registerOthers(new DockingPoint<>(okProvider, objectMapper))
+                .register(HttpStatus.OK, Payloads.ItemsResponse.class)
+                .freeze();
+
+        mapperFunctionDockingPoint = registerOthers(new DockingPoint<>(okProvider, objectMapper))
+                .register(HttpStatus.OK, Payloads.ItemsPayload.class, Payloads.ItemsResponse::fromPayload)
+                .freeze();
+
+        unmatchedDockingPoint = registerOthers(new DockingPoint<>(notFoundProvider, objectMapper))
+                .register(HttpStatus.OK, Payloads.ItemsResponse.class)
+                .freeze();
+    }
+
+    // registrations that never match, to show lookup cost does not depend on their number
+    private DockingPoint<Payloads.ItemsResponse> registerOthers(DockingPoint<Payloads.ItemsResponse> dockingPoint) {
+        for (int i = 1; i < registrationCount; i++) {
+            dockingPoint.register(HttpStatus.MULTIPLE_CHOICES.value() + i, Payloads.ItemsResponse.class);
+        }
+
+        return dockingPoint;
+    }
+
+    @Benchmark
+    public Payloads.ItemsResponse directClass() throws JsonProcessingException {
+        return directClassDockingPoint.call(HttpMethod.GET, URL, null, null);
+    }
+
+    @Benchmark
+    public Payloads.ItemsResponse mapperFunction() throws JsonProcessingException {
+        return mapperFunctionDockingPoint.call(HttpMethod.GET, URL, null, null);
+    }
+
+    @Benchmark
+    public Payloads.ItemsResponse unmatchedStatus() throws JsonProcessingException {
+        return unmatchedDockingPoint.call(HttpMethod.GET, URL, null, null);
+    }
+}
@@ -0,0 +1,95 @@
+package com.erliotto.http.integration.benchmarks;
+
+import com.erliotto.http.integration.core.HttpResultProvider;
+import com.erliotto.http.integration.core.RestTemplateHttpResultProvider;
+import com.erliotto.http.integration.core.WebClientHttpResultProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// transports against an in-process server on the loopback interface
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HttpResultProviderBenchmark {
+
+    @Param({"restTemplate", "webClient"})
+    public String provider;
+
+    // stays below the WebClient default in-memory buffer limit (256 KB)
+    @Param({"10", "1000"})
+    public int itemCount;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpResultProvider httpResultProvider;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final byte[] body = Payloads.items(new ObjectMapper(), itemCount);
+
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/items", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+
+        url = String.format("http://localhost:%d/items", server.getAddress().getPort());
+        httpResultProvider = createHttpResultProvider(provider);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private static HttpResultProvider createHttpResultProvider(String provider) {
+        switch (provider) {
+            case "restTemplate":
+                return new RestTemplateHttpResultProvider(new RestTemplate());
+            case "webClient":
+                return new WebClientHttpResultProvider(WebClient.builder());
+            default:
+                throw new IllegalArgumentException(provider);
+        }
+    }
+
+    @Benchmark
+    public HttpResultProvider.Result call() {
+        return httpResultProvider.call(HttpMethod.GET, url, null, null);
+    }
+}
@@ -0,0 +1,73 @@
+package com.erliotto.http.integration.benchmarks;
+
+import com.dslplatform.json.CompiledJson;
+import com.erliotto.http.integration.core.DefaultHttpStatusHolder;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    static byte[] items(ObjectMapper objectMapper, int itemCount) throws JsonProcessingException {
+        final List<Item> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new Item(i, "item " + i, Arrays.asList("tag " + i % 7, "tag " + i % 13)));
+        }
+
+        return objectMapper.writeValueAsBytes(new ItemsPayload(items));
+    }
+
+    @CompiledJson
+    public static final class Item {
+        @JsonProperty("id")
+        public final long id;
+
+        @JsonProperty("name")
+        public final String name;
+
+        @JsonProperty("tags")
+        public final List<String> tags;
+
+        @JsonCreator
+        public Item(@JsonProperty("id") long id,
+                    @JsonProperty("name") String name,
+                    @JsonProperty("tags") List<String> tags) {
+            this.id = id;
+            this.name = name;
+            this.tags = tags;
+        }
+    }
+
+    @CompiledJson
+    public static final class ItemsPayload {
+        @JsonProperty("items")
+        public final List<Item> items;
+
+        @JsonCreator
+        public ItemsPayload(@JsonProperty("items") List<Item> items) {
+            this.items = items;
+        }
+    }
+
+    public static final class ItemsResponse extends DefaultHttpStatusHolder {
+        @JsonProperty("items")
+        public final List<Item> items;
+
+        @JsonCreator
+        public ItemsResponse(@JsonProperty("items") List<Item> items) {
+            this.items = items;
+        }
+
+        static ItemsResponse fromPayload(ItemsPayload payload) {
+            return new ItemsResponse(payload.items);
+        }
+    }
+}
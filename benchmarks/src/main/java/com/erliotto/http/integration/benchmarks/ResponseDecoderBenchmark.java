@@ -0,0 +1,75 @@
+package com.erliotto.http.integration.benchmarks;
+
+import com.erliotto.http.integration.core.DockingPoint;
+import com.erliotto.http.integration.core.DockingPointMetrics;
+import com.erliotto.http.integration.core.DslJsonResponseDecoder;
+import com.erliotto.http.integration.core.HttpResultProvider;
+import com.erliotto.http.integration.core.JacksonResponseDecoder;
+import com.erliotto.http.integration.core.ResponseDecoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+
+// the same call() over an in-memory provider with each ResponseDecoder; dsl-json reads the payloads
+// with converters generated at compile time (@CompiledJson)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ResponseDecoderBenchmark {
+    private static final String URL = "http://localhost/items";
+
+    @Param({"jackson", "afterburner", "dsl-json"})
+    public String decoder;
+
+    @Param({"1", "100", "10000"})
+    public int itemCount;
+
+    private DockingPoint<Payloads.ItemsResponse> dockingPoint;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        final ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        final byte[] body = Payloads.items(objectMapper, itemCount);
+        final HttpResultProvider okProvider = (httpMethod, url, httpHeaders, payload) -> new HttpResultProvider.Result(HttpStatus.OK, body);
+
+        dockingPoint = new DockingPoint<Payloads.ItemsResponse>(okProvider, objectMapper, DockingPointMetrics.NOOP, responseDecoder(objectMapper))
+                .register(HttpStatus.OK, Payloads.ItemsPayload.class, Payloads.ItemsResponse::fromPayload)
+                .freeze();
+    }
+
+    private ResponseDecoder responseDecoder(ObjectMapper objectMapper) {
+        switch (decoder) {
+            case "afterburner":
+                return JacksonResponseDecoder.afterburner(objectMapper);
+            case "dsl-json":
+                return new DslJsonResponseDecoder();
+            default:
+                return new JacksonResponseDecoder(objectMapper);
+        }
+    }
+
+    @Benchmark
+    public Payloads.ItemsResponse decode() throws JsonProcessingException {
+        return dockingPoint.call(HttpMethod.GET, URL, null, null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.erliotto.http.integration.client.processor;
+
+import java.util.List;
+import java.util.Map;
+
+// One @Call method as validated by DockingClientProcessor; types are source names ready to print.
+final class ClientMethod {
+    enum Kind {
+        PATH,
+        QUERY,
+        HEADER,
+        BODY,
+        DEADLINE
+    }
+
+    static final class Parameter {
+        final Kind kind;
+        final String name;
+        final String type;
+        // path variable, query or header name; null for BODY and DEADLINE
+        final String key;
+        // false for primitives, which need no null check
+        final boolean nullable;
+
+        Parameter(Kind kind, String name, String type, String key, boolean nullable) {
+            this.kind = kind;
+            this.name = name;
+            this.type = type;
+            this.key = key;
+            this.nullable = nullable;
+        }
+    }
+
+    // a literal piece of the path, or a {variable} when parameter is set
+    static final class PathPart {
+        final String literal;
+        final Parameter parameter;
+
+        PathPart(String literal, Parameter parameter) {
+            this.literal = literal;
+            this.parameter = parameter;
+        }
+    }
+
+    final String name;
+    final String httpMethod;
+    final List<PathPart> pathParts;
+    // the path template has a literal query string already
+    final boolean pathHasQuery;
+    final String responseType;
+    final boolean async;
+    final Map<Integer, String> statusTypes;
+    final String otherStatusType;
+    final List<Parameter> parameters;
+    final List<String> thrownTypes;
+
+    ClientMethod(String name,
+                 String httpMethod,
+                 List<PathPart> pathParts,
+                 boolean pathHasQuery,
+                 String responseType,
+                 boolean async,
+                 Map<Integer, String> statusTypes,
+                 String otherStatusType,
+                 List<Parameter> parameters,
+                 List<String> thrownTypes) {
+        this.name = name;
+        this.httpMethod = httpMethod;
+        this.pathParts = pathParts;
+        this.pathHasQuery = pathHasQuery;
+        this.responseType = responseType;
+        this.async = async;
+        this.statusTypes = statusTypes;
+        this.otherStatusType = otherStatusType;
+        this.parameters = parameters;
+        this.thrownTypes = thrownTypes;
+    }
+
+    Parameter parameter(Kind kind) {
+        for (Parameter parameter : parameters) {
+            if (parameter.kind == kind) {
+                return parameter;
+            }
+        }
+
+        return null;
+    }
+
+    boolean hasParameter(Kind kind) {
+        return parameter(kind) != null;
+    }
+}
@@ -0,0 +1,247 @@
+package com.erliotto.http.integration.client.processor;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Prints <Name>Impl: a frozen DockingPoint field per method, built in the constructor, and urls
+// concatenated from the path template's literals. Library types are fully qualified so the
+// generated class cannot clash with the interface's own imports.
+final class ClientSourceWriter {
+    private static final String DOCKING_POINT = "com.erliotto.http.integration.core.DockingPoint";
+    private static final String DOCKING_POINT_METRICS = "com.erliotto.http.integration.core.DockingPointMetrics";
+    private static final String HTTP_RESULT_PROVIDER = "com.erliotto.http.integration.core.HttpResultProvider";
+    private static final String OBJECT_MAPPER = "com.fasterxml.jackson.databind.ObjectMapper";
+    private static final String HTTP_HEADERS = "org.springframework.http.HttpHeaders";
+    private static final String HTTP_METHOD = "org.springframework.http.HttpMethod";
+    private static final String URI_UTILS = "org.springframework.web.util.UriUtils";
+    private static final String UTF_8 = "java.nio.charset.StandardCharsets.UTF_8";
+
+    // added to the literal length of the path for each parameter when sizing the url builder
+    private static final int PARAMETER_CAPACITY = 16;
+
+    private final Filer filer;
+    private final Elements elements;
+
+    ClientSourceWriter(Filer filer, Elements elements) {
+        this.filer = filer;
+        this.elements = elements;
+    }
+
+    void write(TypeElement client, String implementationName, List<ClientMethod> methods) throws IOException {
+        final String packageName = elements.getPackageOf(client).getQualifiedName().toString();
+        final String qualifiedName = packageName.isEmpty() ? implementationName : packageName + "." + implementationName;
+        final List<String> fields = fieldNames(methods);
+
+        final StringBuilder source = new StringBuilder(4096);
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("// Generated by DockingClientProcessor from ").append(client.getQualifiedName()).append(", do not edit.\n")
+                .append(client.getModifiers().contains(Modifier.PUBLIC) ? "public " : "")
+                .append("final class ").append(implementationName).append(" implements ").append(client.getQualifiedName()).append(" {\n")
+                .append("    private final String baseUrl;\n");
+        for (int i = 0; i < methods.size(); i++) {
+            source.append("    private final ").append(DOCKING_POINT).append('<').append(methods.get(i).responseType).append("> ")
+                    .append(fields.get(i)).append(";\n");
+        }
+
+        writeConstructors(source, implementationName, methods, fields);
+        for (int i = 0; i < methods.size(); i++) {
+            writeMethod(source, methods.get(i), fields.get(i));
+        }
+
+        writeHelpers(source);
+        source.append("}\n");
+
+        try (Writer writer = filer.createSourceFile(qualifiedName, client).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private static void writeConstructors(StringBuilder source, String implementationName, List<ClientMethod> methods, List<String> fields) {
+        source.append('\n')
+                .append("    public ").append(implementationName).append('(').append(HTTP_RESULT_PROVIDER).append(" httpResultProvider, ")
+                .append(OBJECT_MAPPER).append(" objectMapper, String baseUrl) {\n")
+                .append("        this(httpResultProvider, objectMapper, ").append(DOCKING_POINT_METRICS).append(".NOOP, baseUrl);\n")
+                .append("    }\n\n")
+                .append("    public ").append(implementationName).append('(').append(HTTP_RESULT_PROVIDER).append(" httpResultProvider, ")
+                .append(OBJECT_MAPPER).append(" objectMapper, ").append(DOCKING_POINT_METRICS).append(" metrics, String baseUrl) {\n")
+                .append("        if (baseUrl == null) {\n")
+                .append("            throw new IllegalArgumentException(\"baseUrl\");\n")
+                .append("        }\n\n")
+                .append("        this.baseUrl = baseUrl.endsWith(\"/\") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;\n");
+
+        for (int i = 0; i < methods.size(); i++) {
+            final ClientMethod method = methods.get(i);
+            source.append("        this.").append(fields.get(i)).append(" = new ").append(DOCKING_POINT).append('<').append(method.responseType)
+                    .append(">(httpResultProvider, objectMapper, metrics)");
+            for (Map.Entry<Integer, String> statusType : method.statusTypes.entrySet()) {
+                source.append("\n                .register(").append(statusType.getKey()).append(", ").append(statusType.getValue()).append(".class)");
+            }
+
+            if (method.otherStatusType != null) {
+                source.append("\n                .registerDefault(").append(method.otherStatusType).append(".class)");
+            }
+
+            source.append("\n                .freeze();\n");
+        }
+
+        source.append("    }\n");
+    }
+
+    private static void writeMethod(StringBuilder source, ClientMethod method, String field) {
+        source.append("\n    @Override\n    public ")
+                .append(method.async ? "java.util.concurrent.CompletableFuture<" + method.responseType + ">" : method.responseType)
+                .append(' ').append(method.name).append('(');
+        for (int i = 0; i < method.parameters.size(); i++) {
+            final ClientMethod.Parameter parameter = method.parameters.get(i);
+            source.append(i > 0 ? ", " : "").append(parameter.type).append(' ').append(parameter.name);
+        }
+
+        source.append(')');
+        for (int i = 0; i < method.thrownTypes.size(); i++) {
+            source.append(i > 0 ? ", " : " throws ").append(method.thrownTypes.get(i));
+        }
+
+        source.append(" {\n");
+        writeUrl(source, method);
+
+        final boolean hasHeaders = method.hasParameter(ClientMethod.Kind.HEADER);
+        if (hasHeaders) {
+            source.append("        final ").append(HTTP_HEADERS).append(" $headers = new ").append(HTTP_HEADERS).append("();\n");
+            for (ClientMethod.Parameter parameter : method.parameters) {
+                if (parameter.kind == ClientMethod.Kind.HEADER) {
+                    writeIfNotNull(source, parameter, "$headers.add(" + literal(parameter.key) + ", String.valueOf(" + parameter.name + "));");
+                }
+            }
+        }
+
+        final ClientMethod.Parameter body = method.parameter(ClientMethod.Kind.BODY);
+        final ClientMethod.Parameter deadline = method.parameter(ClientMethod.Kind.DEADLINE);
+        final String arguments = HTTP_METHOD + "." + method.httpMethod + ", $url.toString(), "
+                + (hasHeaders ? "$headers" : "null") + ", "
+                + (body != null ? body.name : "null");
+        final String call = "this." + field + (method.async ? ".callAsync(" : ".call(") + arguments;
+        if (deadline == null) {
+            source.append("        return ").append(call).append(");\n");
+        } else {
+            source.append("        return ").append(deadline.name).append(" != null\n")
+                    .append("                ? ").append(call).append(", ").append(deadline.name).append(")\n")
+                    .append("                : ").append(call).append(");\n");
+        }
+
+        source.append("    }\n");
+    }
+
+    private static void writeUrl(StringBuilder source, ClientMethod method) {
+        int capacity = 0;
+        for (ClientMethod.PathPart pathPart : method.pathParts) {
+            capacity += pathPart.literal != null ? pathPart.literal.length() : PARAMETER_CAPACITY;
+        }
+
+        for (ClientMethod.Parameter parameter : method.parameters) {
+            if (parameter.kind == ClientMethod.Kind.QUERY) {
+                capacity += parameter.key.length() + PARAMETER_CAPACITY;
+            }
+        }
+
+        source.append("        final StringBuilder $url = new StringBuilder(this.baseUrl.length() + ").append(capacity).append(")\n")
+                .append("                .append(this.baseUrl)");
+        for (ClientMethod.PathPart pathPart : method.pathParts) {
+            if (pathPart.literal != null) {
+                source.append("\n                .append(").append(literal(pathPart.literal)).append(')');
+            } else {
+                source.append("\n                .append(encodePathSegment(").append(literal(pathPart.parameter.key)).append(", ")
+                        .append(pathPart.parameter.name).append("))");
+            }
+        }
+
+        source.append(";\n");
+        if (!method.hasParameter(ClientMethod.Kind.QUERY)) {
+            return;
+        }
+
+        source.append("        char $separator = '").append(method.pathHasQuery ? '&' : '?').append("';\n");
+        for (ClientMethod.Parameter parameter : method.parameters) {
+            if (parameter.kind == ClientMethod.Kind.QUERY) {
+                writeIfNotNull(source, parameter,
+                        "$url.append($separator).append(" + literal(parameter.key + "=") + ").append(encodeQueryParam(" + parameter.name + "));",
+                        "$separator = '&';");
+            }
+        }
+    }
+
+    private static void writeIfNotNull(StringBuilder source, ClientMethod.Parameter parameter, String... statements) {
+        final String indent = parameter.nullable ? "            " : "        ";
+        if (parameter.nullable) {
+            source.append("        if (").append(parameter.name).append(" != null) {\n");
+        }
+
+        for (String statement : statements) {
+            source.append(indent).append(statement).append('\n');
+        }
+
+        if (parameter.nullable) {
+            source.append("        }\n");
+        }
+    }
+
+    private static void writeHelpers(StringBuilder source) {
+        source.append('\n')
+                .append("    private static String encodePathSegment(String name, Object value) {\n")
+                .append("        if (value == null) {\n")
+                .append("            throw new IllegalArgumentException(name);\n")
+                .append("        }\n\n")
+                .append("        return ").append(URI_UTILS).append(".encodePathSegment(String.valueOf(value), ").append(UTF_8).append(");\n")
+                .append("    }\n\n")
+                // UriUtils leaves '+', which servers decode as a space in a query
+                .append("    private static String encodeQueryParam(Object value) {\n")
+                .append("        return ").append(URI_UTILS).append(".encodeQueryParam(String.valueOf(value), ").append(UTF_8)
+                .append(").replace(\"+\", \"%2B\");\n")
+                .append("    }\n");
+    }
+
+    // overloads share a name, so later ones get a numeric suffix
+    private static List<String> fieldNames(List<ClientMethod> methods) {
+        final Set<String> used = new HashSet<>();
+        used.add("baseUrl");
+
+        final List<String> fields = new ArrayList<>(methods.size());
+        for (ClientMethod method : methods) {
+            String field = method.name + "DockingPoint";
+            for (int suffix = 2; !used.add(field); suffix++) {
+                field = method.name + "DockingPoint" + suffix;
+            }
+
+            fields.add(field);
+        }
+
+        return fields;
+    }
+
+    private static String literal(String value) {
+        final StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+}
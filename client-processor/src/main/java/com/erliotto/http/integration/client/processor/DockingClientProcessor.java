@@ -0,0 +1,335 @@
+package com.erliotto.http.integration.client.processor;
+
+import com.erliotto.http.integration.client.Body;
+import com.erliotto.http.integration.client.Call;
+import com.erliotto.http.integration.client.DockingClient;
+import com.erliotto.http.integration.client.HeaderParam;
+import com.erliotto.http.integration.client.OnOtherStatus;
+import com.erliotto.http.integration.client.OnStatus;
+import com.erliotto.http.integration.client.PathParam;
+import com.erliotto.http.integration.client.QueryParam;
+import com.erliotto.http.integration.core.Deadline;
+import com.erliotto.http.integration.core.HttpStatusHolder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// Writes <Name>Impl for every @DockingClient interface. Everything a hand-written client would
+// resolve at runtime (status mapping, path template) is checked here and fails the build instead.
+@SupportedAnnotationTypes("com.erliotto.http.integration.client.DockingClient")
+public final class DockingClientProcessor extends AbstractProcessor {
+    private static final class InvalidClientException extends RuntimeException {
+        private final Element element;
+
+        InvalidClientException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        for (Element element : roundEnvironment.getElementsAnnotatedWith(DockingClient.class)) {
+            try {
+                final TypeElement client = readClient(element);
+                final List<ClientMethod> methods = new ArrayList<>();
+                for (ExecutableElement method : ElementFilter.methodsIn(elements().getAllMembers(client))) {
+                    if (method.getModifiers().contains(Modifier.ABSTRACT)) {
+                        methods.add(readMethod(method));
+                    }
+                }
+
+                new ClientSourceWriter(processingEnv.getFiler(), elements()).write(client, implementationName(client), methods);
+            } catch (InvalidClientException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        String.format("cannot write implementation: %s", e.getMessage()), element);
+            }
+        }
+
+        return true;
+    }
+
+    // Outer.Inner becomes Outer_InnerImpl, in the interface's package
+    static String implementationName(TypeElement client) {
+        String name = client.getSimpleName().toString();
+        for (Element enclosing = client.getEnclosingElement(); enclosing.getKind() != ElementKind.PACKAGE; enclosing = enclosing.getEnclosingElement()) {
+            name = enclosing.getSimpleName() + "_" + name;
+        }
+
+        return name + "Impl";
+    }
+
+    private TypeElement readClient(Element element) {
+        if (element.getKind() != ElementKind.INTERFACE) {
+            throw new InvalidClientException(element, "@DockingClient must annotate an interface");
+        }
+
+        final TypeElement client = (TypeElement) element;
+        if (!client.getTypeParameters().isEmpty()) {
+            throw new InvalidClientException(element, "@DockingClient interface must not be generic");
+        }
+
+        for (Element enclosing = client; enclosing.getKind() != ElementKind.PACKAGE; enclosing = enclosing.getEnclosingElement()) {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new InvalidClientException(element, "@DockingClient interface must not be private");
+            }
+        }
+
+        return client;
+    }
+
+    private ClientMethod readMethod(ExecutableElement method) {
+        final Call call = method.getAnnotation(Call.class);
+        if (call == null) {
+            throw new InvalidClientException(method, "@DockingClient method needs @Call");
+        }
+
+        if (!method.getTypeParameters().isEmpty()) {
+            throw new InvalidClientException(method, "@Call method must not be generic");
+        }
+
+        TypeMirror responseType = method.getReturnType();
+        boolean async = false;
+        if (responseType.getKind() == TypeKind.DECLARED
+                && ((DeclaredType) responseType).getTypeArguments().size() == 1
+                && types().isSameType(types().erasure(responseType), types().erasure(typeOf(CompletableFuture.class)))) {
+            responseType = ((DeclaredType) responseType).getTypeArguments().get(0);
+            async = true;
+        }
+
+        if (responseType.getKind() != TypeKind.DECLARED
+                || !((DeclaredType) responseType).getTypeArguments().isEmpty()
+                || !types().isAssignable(responseType, typeOf(HttpStatusHolder.class))) {
+            throw new InvalidClientException(method, "@Call method must return a non-generic HttpStatusHolder or a CompletableFuture of one");
+        }
+
+        if (!async && !declares(method, typeOf(JsonProcessingException.class))) {
+            throw new InvalidClientException(method, "@Call method must declare JsonProcessingException or a supertype");
+        }
+
+        final Map<Integer, String> statusTypes = new LinkedHashMap<>();
+        for (OnStatus onStatus : method.getAnnotationsByType(OnStatus.class)) {
+            // DockingPoint.register rejects these at runtime; fail the build instead
+            if (onStatus.code() < 100 || onStatus.code() > 599) {
+                throw new InvalidClientException(method, String.format("@OnStatus(code = %d) is not an HTTP status", onStatus.code()));
+            }
+
+            final TypeMirror statusType = classValue(onStatus::type);
+            if (statusTypes.put(onStatus.code(), responseClass(method, statusType, responseType)) != null) {
+                throw new InvalidClientException(method, String.format("@OnStatus(code = %d) is repeated", onStatus.code()));
+            }
+        }
+
+        final OnOtherStatus onOtherStatus = method.getAnnotation(OnOtherStatus.class);
+        final String otherStatusType = onOtherStatus != null
+                ? responseClass(method, classValue(onOtherStatus::value), responseType)
+                : null;
+
+        if (statusTypes.isEmpty() && otherStatusType == null) {
+            throw new InvalidClientException(method, "@Call method needs @OnStatus or @OnOtherStatus");
+        }
+
+        final List<ClientMethod.Parameter> parameters = readParameters(method);
+        final String path = call.path();
+        final List<ClientMethod.PathPart> pathParts = readPath(method, path, parameters);
+
+        final List<String> thrownTypes = new ArrayList<>();
+        for (TypeMirror thrownType : method.getThrownTypes()) {
+            thrownTypes.add(thrownType.toString());
+        }
+
+        return new ClientMethod(method.getSimpleName().toString(), call.method().name(), pathParts, path.indexOf('?') >= 0,
+                responseType.toString(), async, statusTypes, otherStatusType, parameters, thrownTypes);
+    }
+
+    private List<ClientMethod.Parameter> readParameters(ExecutableElement method) {
+        final List<ClientMethod.Parameter> parameters = new ArrayList<>();
+        final Set<ClientMethod.Kind> single = new HashSet<>();
+        for (VariableElement parameter : method.getParameters()) {
+            final PathParam pathParam = parameter.getAnnotation(PathParam.class);
+            final QueryParam queryParam = parameter.getAnnotation(QueryParam.class);
+            final HeaderParam headerParam = parameter.getAnnotation(HeaderParam.class);
+            final Body body = parameter.getAnnotation(Body.class);
+
+            int annotationCount = 0;
+            ClientMethod.Kind kind = ClientMethod.Kind.DEADLINE;
+            String key = null;
+            if (pathParam != null) {
+                annotationCount++;
+                kind = ClientMethod.Kind.PATH;
+                key = pathParam.value();
+            }
+            if (queryParam != null) {
+                annotationCount++;
+                kind = ClientMethod.Kind.QUERY;
+                key = queryParam.value();
+            }
+            if (headerParam != null) {
+                annotationCount++;
+                kind = ClientMethod.Kind.HEADER;
+                key = headerParam.value();
+            }
+            if (body != null) {
+                annotationCount++;
+                kind = ClientMethod.Kind.BODY;
+            }
+
+            if (annotationCount > 1) {
+                throw new InvalidClientException(parameter, "parameter can have only one of @PathParam, @QueryParam, @HeaderParam and @Body");
+            }
+
+            if (annotationCount == 0 && !types().isSameType(parameter.asType(), typeOf(Deadline.class))) {
+                throw new InvalidClientException(parameter, "parameter needs @PathParam, @QueryParam, @HeaderParam or @Body, or must be a Deadline");
+            }
+
+            if ((kind == ClientMethod.Kind.BODY || kind == ClientMethod.Kind.DEADLINE) && !single.add(kind)) {
+                throw new InvalidClientException(parameter, String.format("@Call method can have only one %s parameter", kind == ClientMethod.Kind.BODY ? "@Body" : "Deadline"));
+            }
+
+            if (key != null && key.isEmpty()) {
+                throw new InvalidClientException(parameter, "parameter name must not be empty");
+            }
+
+            parameters.add(new ClientMethod.Parameter(kind, parameter.getSimpleName().toString(), parameter.asType().toString(), key,
+                    !parameter.asType().getKind().isPrimitive()));
+        }
+
+        return parameters;
+    }
+
+    private static List<ClientMethod.PathPart> readPath(ExecutableElement method, String path, List<ClientMethod.Parameter> parameters) {
+        final Map<String, ClientMethod.Parameter> pathParameters = new HashMap<>();
+        for (ClientMethod.Parameter parameter : parameters) {
+            if (parameter.kind == ClientMethod.Kind.PATH && pathParameters.put(parameter.key, parameter) != null) {
+                throw new InvalidClientException(method, String.format("@PathParam(\"%s\") is repeated", parameter.key));
+            }
+        }
+
+        final int queryStart = path.indexOf('?');
+        final List<ClientMethod.PathPart> pathParts = new ArrayList<>();
+        final Set<String> used = new HashSet<>();
+        final StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < path.length(); i++) {
+            final char c = path.charAt(i);
+            if (c == '}') {
+                throw new InvalidClientException(method, String.format("unmatched } in path: %s", path));
+            }
+
+            if (c != '{') {
+                literal.append(c);
+                continue;
+            }
+
+            final int end = path.indexOf('}', i);
+            if (end < 0) {
+                throw new InvalidClientException(method, String.format("unclosed { in path: %s", path));
+            }
+
+            if (queryStart >= 0 && i > queryStart) {
+                throw new InvalidClientException(method, String.format("use @QueryParam instead of {} after ? in path: %s", path));
+            }
+
+            final String name = path.substring(i + 1, end);
+            final ClientMethod.Parameter parameter = pathParameters.get(name);
+            if (parameter == null) {
+                throw new InvalidClientException(method, String.format("no @PathParam(\"%s\") for path: %s", name, path));
+            }
+
+            if (literal.length() > 0) {
+                pathParts.add(new ClientMethod.PathPart(literal.toString(), null));
+                literal.setLength(0);
+            }
+
+            pathParts.add(new ClientMethod.PathPart(null, parameter));
+            used.add(name);
+            i = end;
+        }
+
+        if (literal.length() > 0) {
+            pathParts.add(new ClientMethod.PathPart(literal.toString(), null));
+        }
+
+        for (String name : pathParameters.keySet()) {
+            if (!used.contains(name)) {
+                throw new InvalidClientException(method, String.format("@PathParam(\"%s\") is not in path: %s", name, path));
+            }
+        }
+
+        return pathParts;
+    }
+
+    private String responseClass(ExecutableElement method, TypeMirror type, TypeMirror responseType) {
+        if (type.getKind() != TypeKind.DECLARED || !types().isAssignable(types().erasure(type), responseType)) {
+            throw new InvalidClientException(method, String.format("%s is not a %s", type, responseType));
+        }
+
+        return types().erasure(type).toString();
+    }
+
+    private boolean declares(ExecutableElement method, TypeMirror exceptionType) {
+        for (TypeMirror thrownType : method.getThrownTypes()) {
+            if (types().isAssignable(exceptionType, thrownType)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private TypeMirror typeOf(Class<?> type) {
+        return elements().getTypeElement(type.getCanonicalName()).asType();
+    }
+
+    // Class members of annotations are not loadable while compiling: the mirror comes with the exception
+    private static TypeMirror classValue(Supplier<Class<?>> value) {
+        try {
+            value.get();
+        } catch (MirroredTypeException e) {
+            return e.getTypeMirror();
+        }
+
+        throw new IllegalStateException("annotation class value was loaded instead of mirrored");
+    }
+
+    private Elements elements() {
+        return processingEnv.getElementUtils();
+    }
+
+    private Types types() {
+        return processingEnv.getTypeUtils();
+    }
+}
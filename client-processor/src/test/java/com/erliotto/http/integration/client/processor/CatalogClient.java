@@ -0,0 +1,52 @@
+package com.erliotto.http.integration.client.processor;
+
+import com.erliotto.http.integration.client.Body;
+import com.erliotto.http.integration.client.Call;
+import com.erliotto.http.integration.client.DockingClient;
+import com.erliotto.http.integration.client.HeaderParam;
+import com.erliotto.http.integration.client.OnOtherStatus;
+import com.erliotto.http.integration.client.OnStatus;
+import com.erliotto.http.integration.client.PathParam;
+import com.erliotto.http.integration.client.QueryParam;
+import com.erliotto.http.integration.core.Deadline;
+import com.erliotto.http.integration.core.DefaultHttpStatusHolder;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.http.HttpMethod;
+
+import java.util.concurrent.CompletableFuture;
+
+@DockingClient
+interface CatalogClient {
+    abstract class CatalogResponse extends DefaultHttpStatusHolder {
+    }
+
+    final class Item extends CatalogResponse {
+        public final String name;
+
+        @JsonCreator
+        public Item(@JsonProperty("name") String name) {
+            this.name = name;
+        }
+    }
+
+    final class Missing extends CatalogResponse {
+    }
+
+    @Call(method = HttpMethod.GET, path = "/shelves/{shelf}/items/{id}")
+    @OnStatus(code = 200, type = Item.class)
+    @OnOtherStatus(Missing.class)
+    CatalogResponse getItem(@PathParam("shelf") String shelf,
+                            @PathParam("id") int id,
+                            @QueryParam("lang") String lang,
+                            @QueryParam("fields") String fields,
+                            Deadline deadline) throws JsonProcessingException;
+
+    @Call(method = HttpMethod.PUT, path = "/items?source=catalog")
+    @OnStatus(code = 201, type = Item.class)
+    @OnStatus(code = 409, type = Missing.class)
+    CompletableFuture<CatalogResponse> putItem(@HeaderParam("X-Request-Id") String requestId,
+                                               @QueryParam("id") long id,
+                                               @Body Item item);
+}
@@ -0,0 +1,187 @@
+package com.erliotto.http.integration.client.processor;
+
+import com.erliotto.http.integration.core.HttpResultProvider;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DockingClientProcessorTests {
+    private static final String BASE_URL = "http://localhost/catalog/";
+
+    private static final class StubHttpResultProvider implements HttpResultProvider {
+        private final List<HttpMethod> methods = new ArrayList<>();
+        private final List<String> urls = new ArrayList<>();
+        private final List<HttpHeaders> headers = new ArrayList<>();
+        private final List<Object> payloads = new ArrayList<>();
+        private final int statusCode;
+        private final String body;
+
+        StubHttpResultProvider(int statusCode, String body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        @Override
+        public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+            methods.add(httpMethod);
+            urls.add(url);
+            headers.add(httpHeaders);
+            payloads.add(payload);
+
+            final HttpHeaders responseHeaders = new HttpHeaders();
+            responseHeaders.setContentType(MediaType.APPLICATION_JSON);
+            return new Result(statusCode, responseHeaders, body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void call_whenPathAndQueryParams_shouldBuildEncodedUrlAndDispatchByStatus() throws JsonProcessingException {
+        // arrange
+        final StubHttpResultProvider provider = new StubHttpResultProvider(200, "{\"name\":\"lamp\"}");
+        final CatalogClient client = new CatalogClientImpl(provider, new ObjectMapper(), BASE_URL);
+
+        // act
+        final CatalogClient.CatalogResponse actual = client.getItem("a/b c", 7, "en", null, null);
+
+        // assert
+        assertThat(provider.methods)
+                .containsExactly(HttpMethod.GET);
+        assertThat(provider.urls)
+                .containsExactly("http://localhost/catalog/shelves/a%2Fb%20c/items/7?lang=en");
+        assertThat(actual)
+                .isInstanceOf(CatalogClient.Item.class);
+        assertThat(((CatalogClient.Item) actual).name)
+                .isEqualTo("lamp");
+    }
+
+    @Test
+    void call_whenQueryParamHasPlus_shouldEncodeItAsPercent2B() throws JsonProcessingException {
+        // arrange
+        final StubHttpResultProvider provider = new StubHttpResultProvider(200, "{\"name\":\"lamp\"}");
+        final CatalogClient client = new CatalogClientImpl(provider, new ObjectMapper(), BASE_URL);
+
+        // act
+        client.getItem("shelf", 7, "c++ &more", null, null);
+
+        // assert
+        assertThat(provider.urls)
+                .containsExactly("http://localhost/catalog/shelves/shelf/items/7?lang=c%2B%2B%20%26more");
+    }
+
+    @Test
+    void callAsync_whenHeaderBodyAndLiteralQuery_shouldSendThemAndDispatchByStatus() {
+        // arrange
+        final StubHttpResultProvider provider = new StubHttpResultProvider(409, "{}");
+        final CatalogClient client = new CatalogClientImpl(provider, new ObjectMapper(), BASE_URL);
+        final CatalogClient.Item item = new CatalogClient.Item("desk");
+
+        // act
+        final CatalogClient.CatalogResponse actual = client.putItem("r-1", 42L, item).join();
+
+        // assert
+        assertThat(provider.urls)
+                .containsExactly("http://localhost/catalog/items?source=catalog&id=42");
+        assertThat(provider.headers.get(0).getFirst("X-Request-Id"))
+                .isEqualTo("r-1");
+        assertThat(provider.payloads)
+                .containsExactly(item);
+        assertThat(actual)
+                .isInstanceOf(CatalogClient.Missing.class);
+        assertThat(actual.getRawStatusCode())
+                .isEqualTo(409);
+    }
+
+    @Test
+    void process_whenPathVariableHasNoPathParam_shouldFailCompilation(@TempDir Path directory) throws IOException {
+        // arrange
+        final Path source = directory.resolve("BrokenClient.java");
+        Files.write(source, Arrays.asList(
+                "import com.erliotto.http.integration.client.*;",
+                "import com.erliotto.http.integration.core.DefaultHttpStatusHolder;",
+                "import org.springframework.http.HttpMethod;",
+                "@DockingClient",
+                "interface BrokenClient {",
+                "    final class Response extends DefaultHttpStatusHolder {}",
+                "    @Call(method = HttpMethod.GET, path = \"/items/{id}\")",
+                "    @OnStatus(code = 200, type = Response.class)",
+                "    Response getItem() throws Exception;",
+                "}"));
+
+        // act
+        final List<String> actual = compileErrors(directory, source);
+
+        // assert
+        assertThat(actual)
+                .containsExactly("no @PathParam(\"id\") for path: /items/{id}");
+    }
+
+    @Test
+    void process_whenOnStatusCodeOutOfRange_shouldFailCompilation(@TempDir Path directory) throws IOException {
+        // arrange
+        final Path source = directory.resolve("BrokenClient.java");
+        Files.write(source, Arrays.asList(
+                "import com.erliotto.http.integration.client.*;",
+                "import com.erliotto.http.integration.core.DefaultHttpStatusHolder;",
+                "import org.springframework.http.HttpMethod;",
+                "@DockingClient",
+                "interface BrokenClient {",
+                "    final class Response extends DefaultHttpStatusHolder {}",
+                "    @Call(method = HttpMethod.GET, path = \"/items\")",
+                "    @OnStatus(code = 2000, type = Response.class)",
+                "    Response getItems() throws Exception;",
+                "}"));
+
+        // act
+        final List<String> actual = compileErrors(directory, source);
+
+        // assert
+        assertThat(actual)
+                .containsExactly("@OnStatus(code = 2000) is not an HTTP status");
+    }
+
+    // compiles source with the processor; the error messages, empty when it compiled
+    private static List<String> compileErrors(Path directory, Path source) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        final boolean compiled;
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", directory.toString()),
+                    null, fileManager.getJavaFileObjects(source.toFile()));
+            task.setProcessors(Collections.singletonList(new DockingClientProcessor()));
+            compiled = task.call();
+        }
+
+        final List<String> errors = diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+        assertThat(compiled)
+                .isEqualTo(errors.isEmpty());
+
+        return errors;
+    }
+}
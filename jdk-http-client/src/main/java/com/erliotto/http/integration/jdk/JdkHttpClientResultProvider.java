@@ -0,0 +1,225 @@
+package com.erliotto.http.integration.jdk;
+
+import com.erliotto.http.integration.core.AsyncHttpResultProvider;
+import com.erliotto.http.integration.core.Deadline;
+import com.erliotto.http.integration.core.HttpResultProvider;
+import com.erliotto.http.integration.core.SerializedPayload;
+import com.erliotto.http.integration.core.StreamingHttpResultProvider;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Transport on java.net.http.HttpClient. Share one client (createHttpClient) across providers: it owns
+// the connection pool and multiplexes concurrent calls to an h2 origin over a single connection.
+// Payloads that are not byte[] or String are written as JSON with the given ObjectMapper.
+public final class JdkHttpClientResultProvider implements HttpResultProvider, AsyncHttpResultProvider, StreamingHttpResultProvider {
+    // set by the client itself, HttpRequest.Builder rejects them
+    private static final Set<String> RESTRICTED_HEADERS = restrictedHeaders();
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+
+    public JdkHttpClientResultProvider(HttpClient httpClient, ObjectMapper objectMapper) {
+        this(httpClient, objectMapper, null);
+    }
+
+    // timeout bounds calls made without a current deadline; null leaves them unbounded
+    public JdkHttpClientResultProvider(HttpClient httpClient, ObjectMapper objectMapper, Duration timeout) {
+        if (httpClient == null) {
+            throw new IllegalArgumentException("httpClient");
+        }
+
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("objectMapper");
+        }
+
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    public static HttpClient createHttpClient(Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    @Override
+    public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        try {
+            return callAsync(httpMethod, url, httpHeaders, payload).join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Result> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final Deadline deadline = currentDeadline();
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFuture.completedFuture(Deadline.exceededResult());
+        }
+
+        CompletableFuture<HttpResponse<byte[]>> response = httpClient.sendAsync(
+                request(httpMethod, url, httpHeaders, payload, deadline), HttpResponse.BodyHandlers.ofByteArray());
+
+        // the request timeout ends at the response headers, the body must arrive within the deadline too
+        if (deadline != null) {
+            response = response.orTimeout(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        return response.handle((httpResponse, error) -> {
+            if (error == null) {
+                return new Result(httpResponse.statusCode(), toHttpHeaders(httpResponse), httpResponse.body());
+            }
+
+            final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (deadline != null && (cause instanceof HttpTimeoutException || cause instanceof TimeoutException)) {
+                return Deadline.exceededResult();
+            }
+
+            throw new CompletionException(cause);
+        });
+    }
+
+    @Override
+    public StreamingResult callStreaming(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) throws IOException {
+        final HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request(httpMethod, url, httpHeaders, payload, Deadline.current()), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        }
+
+        final InputStream body = response.body();
+        return new StreamingResult(response.statusCode(), toHttpHeaders(response), body, body);
+    }
+
+    private HttpRequest request(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload, Deadline deadline) {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(toUri(url));
+
+        if (httpHeaders != null) {
+            for (Map.Entry<String, List<String>> header : httpHeaders.entrySet()) {
+                if (RESTRICTED_HEADERS.contains(header.getKey())) {
+                    continue;
+                }
+
+                for (String value : header.getValue()) {
+                    builder.header(header.getKey(), value);
+                }
+            }
+        }
+
+        builder.method(httpMethod.name(), bodyPublisher(builder, httpHeaders, payload));
+
+        if (deadline != null) {
+            builder.timeout(deadline.responseTimeout());
+        }
+
+        return builder.build();
+    }
+
+    private HttpRequest.BodyPublisher bodyPublisher(HttpRequest.Builder builder, HttpHeaders httpHeaders, Object payload) {
+        if (payload == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+
+        if (payload instanceof SerializedPayload) {
+            final SerializedPayload serialized = (SerializedPayload) payload;
+            if (httpHeaders == null || httpHeaders.getContentType() == null) {
+                builder.header(HttpHeaders.CONTENT_TYPE, serialized.getContentType().toString());
+            }
+
+            return HttpRequest.BodyPublishers.ofByteArray(serialized.getBytes());
+        }
+
+        if (payload instanceof byte[]) {
+            return HttpRequest.BodyPublishers.ofByteArray((byte[]) payload);
+        }
+
+        if (payload instanceof String) {
+            return HttpRequest.BodyPublishers.ofString((String) payload, StandardCharsets.UTF_8);
+        }
+
+        if (httpHeaders == null || httpHeaders.getContentType() == null) {
+            builder.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        }
+
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(payload));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Deadline currentDeadline() {
+        final Deadline deadline = Deadline.current();
+        if (deadline != null || timeout == null) {
+            return deadline;
+        }
+
+        return Deadline.after(timeout);
+    }
+
+    private static HttpHeaders toHttpHeaders(HttpResponse<?> response) {
+        final HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        return headers;
+    }
+
+    private static URI toUri(String url) {
+        try {
+            return URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return UriComponentsBuilder.fromUriString(url)
+                    .build()
+                    .encode()
+                    .toUri();
+        }
+    }
+
+    private static Set<String> restrictedHeaders() {
+        final Set<String> headers = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        headers.add(HttpHeaders.CONNECTION);
+        headers.add(HttpHeaders.CONTENT_LENGTH);
+        headers.add(HttpHeaders.EXPECT);
+        headers.add(HttpHeaders.HOST);
+        headers.add(HttpHeaders.UPGRADE);
+        return headers;
+    }
+}
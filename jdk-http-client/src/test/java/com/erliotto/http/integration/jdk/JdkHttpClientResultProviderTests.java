@@ -0,0 +1,162 @@
+package com.erliotto.http.integration.jdk;
+
+import com.erliotto.http.integration.core.Deadline;
+import com.erliotto.http.integration.core.DefaultHttpStatusHolder;
+import com.erliotto.http.integration.core.DockingPoint;
+import com.erliotto.http.integration.core.HttpResultProvider;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdkHttpClientResultProviderTests {
+    HttpServer server;
+    ExecutorService serverExecutor;
+    JdkHttpClientResultProvider provider;
+
+    public static final class Item {
+        @JsonProperty("id")
+        public final int id;
+
+        @JsonCreator
+        public Item(@JsonProperty("id") int id) {
+            this.id = id;
+        }
+    }
+
+    private static final class EchoResponse extends DefaultHttpStatusHolder {
+        public final String body;
+
+        EchoResponse(String body) {
+            this.body = body;
+        }
+    }
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", exchange -> respond(exchange, 200, "[{\"id\":1},{\"id\":2},{\"id\":3}]"));
+        server.createContext("/echo", exchange -> respond(exchange, 201,
+                exchange.getRequestHeaders().getFirst(HttpHeaders.CONTENT_TYPE) + " "
+                        + StreamUtils.copyToString(exchange.getRequestBody(), StandardCharsets.UTF_8)));
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "slow");
+        });
+
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        provider = new JdkHttpClientResultProvider(JdkHttpClientResultProvider.createHttpClient(Duration.ofSeconds(5)), new ObjectMapper());
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    private String createUrl(String path) {
+        return String.format("http://localhost:%d/%s", server.getAddress().getPort(), path);
+    }
+
+    @Test
+    void call_whenGetAndUnknownPath_shouldReturnStatusHeadersAndBody() {
+        // act
+        final HttpResultProvider.Result actual = provider.call(HttpMethod.GET, createUrl("items"), null, null);
+        final HttpResultProvider.Result notFound = provider.call(HttpMethod.GET, createUrl("unknown"), null, null);
+
+        // assert
+        assertThat(actual.rawStatusCode)
+                .isEqualTo(200);
+
+        assertThat(actual.headers.getContentType().toString())
+                .isEqualTo("application/json");
+
+        assertThat(actual.bodyAsString())
+                .isEqualTo("[{\"id\":1},{\"id\":2},{\"id\":3}]");
+
+        assertThat(notFound.rawStatusCode)
+                .isEqualTo(404);
+    }
+
+    @Test
+    void callAsync_whenPostObjectPayload_shouldSendJsonThroughDockingPoint() {
+        // arrange
+        final HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.set(HttpHeaders.HOST, "ignored");
+
+        final DockingPoint<EchoResponse> dockingPoint = new DockingPoint<EchoResponse>(provider, new ObjectMapper())
+                .register(201, String.class, EchoResponse::new);
+
+        // act
+        final EchoResponse actual = dockingPoint.callAsync(HttpMethod.POST, createUrl("echo"), httpHeaders, new Item(7)).join();
+
+        // assert
+        assertThat(actual.body)
+                .isEqualTo("application/json {\"id\":7}");
+    }
+
+    @Test
+    void callStream_whenGetJsonArray_shouldStreamElements() throws IOException {
+        // arrange
+        final DockingPoint<EchoResponse> dockingPoint = new DockingPoint<>(provider, new ObjectMapper());
+
+        // act
+        final List<Integer> actual;
+        try (Stream<Item> items = dockingPoint.callStream(HttpMethod.GET, createUrl("items"), null, null, Item.class)) {
+            actual = items.map(item -> item.id).collect(Collectors.toList());
+        }
+
+        // assert
+        assertThat(actual)
+                .containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void call_whenDeadlineExpires_shouldReturnExceededResult() {
+        // act
+        final HttpResultProvider.Result actual;
+        try (Deadline.Scope scope = Deadline.after(Duration.ofMillis(200)).enter()) {
+            actual = provider.call(HttpMethod.GET, createUrl("slow"), null, null);
+        }
+
+        // assert
+        assertThat(Deadline.isExceeded(actual))
+                .isTrue();
+    }
+}
@@ -0,0 +1,193 @@
+package com.erliotto.http.integration.apache;
+
+import com.erliotto.http.integration.core.Deadline;
+import com.erliotto.http.integration.core.HttpResultProvider;
+import com.erliotto.http.integration.core.SerializedPayload;
+import com.erliotto.http.integration.core.StreamingHttpResultProvider;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Transport on a pooled Apache HttpClient 5 (see ApacheHttpClients for the pool).
+// requestConfig must be the client's default config: a Deadline narrows its connect and response timeouts per call.
+// Payloads that are not byte[] or String are written as JSON with the given ObjectMapper.
+public final class ApacheHttpClientResultProvider implements HttpResultProvider, StreamingHttpResultProvider {
+    private final CloseableHttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final RequestConfig requestConfig;
+
+    public ApacheHttpClientResultProvider(CloseableHttpClient httpClient, ObjectMapper objectMapper, RequestConfig requestConfig) {
+        if (httpClient == null) {
+            throw new IllegalArgumentException("httpClient");
+        }
+
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("objectMapper");
+        }
+
+        if (requestConfig == null) {
+            throw new IllegalArgumentException("requestConfig");
+        }
+
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.requestConfig = requestConfig;
+    }
+
+    @Override
+    public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            return Deadline.exceededResult();
+        }
+
+        try (CloseableHttpResponse response = httpClient.execute(request(httpMethod, url, httpHeaders, payload, deadline))) {
+            final HttpEntity entity = response.getEntity();
+            final byte[] body = entity != null ? EntityUtils.toByteArray(entity) : null;
+
+            return new Result(response.getCode(), toHttpHeaders(response.getHeaders()), body);
+        } catch (SocketTimeoutException e) {
+            // connect and read timeouts
+            if (deadline != null) {
+                return Deadline.exceededResult();
+            }
+
+            throw new UncheckedIOException(e);
+        } catch (ConnectionRequestTimeoutException e) {
+            // a pool lease timeout is an error unless the deadline is what cut it short
+            if (deadline != null && deadline.isExpired()) {
+                return Deadline.exceededResult();
+            }
+
+            throw new UncheckedIOException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public StreamingResult callStreaming(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) throws IOException {
+        final CloseableHttpResponse response = httpClient.execute(request(httpMethod, url, httpHeaders, payload, Deadline.current()));
+        try {
+            final HttpEntity entity = response.getEntity();
+            final InputStream body = entity != null ? entity.getContent() : new ByteArrayInputStream(new byte[0]);
+
+            return new StreamingResult(response.getCode(), toHttpHeaders(response.getHeaders()), body, response);
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    private HttpUriRequestBase request(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload, Deadline deadline) {
+        final HttpUriRequestBase request = new HttpUriRequestBase(httpMethod.name(), toUri(url));
+
+        if (httpHeaders != null) {
+            for (Map.Entry<String, List<String>> header : httpHeaders.entrySet()) {
+                // framing headers are set by the client from the entity
+                if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())
+                        || HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(header.getKey())) {
+                    continue;
+                }
+
+                for (String value : header.getValue()) {
+                    request.addHeader(header.getKey(), value);
+                }
+            }
+        }
+
+        if (payload != null) {
+            request.setEntity(entity(httpHeaders, payload));
+        }
+
+        if (deadline != null) {
+            request.setConfig(RequestConfig.copy(requestConfig)
+                    .setConnectionRequestTimeout(min(requestConfig.getConnectionRequestTimeout(), deadline.remaining()))
+                    .setConnectTimeout(min(requestConfig.getConnectTimeout(), deadline.connectTimeout()))
+                    .setResponseTimeout(min(requestConfig.getResponseTimeout(), deadline.responseTimeout()))
+                    .build());
+        }
+
+        return request;
+    }
+
+    private HttpEntity entity(HttpHeaders httpHeaders, Object payload) {
+        final String contentType = httpHeaders != null ? httpHeaders.getFirst(HttpHeaders.CONTENT_TYPE) : null;
+
+        if (payload instanceof SerializedPayload) {
+            final SerializedPayload serialized = (SerializedPayload) payload;
+            return new ByteArrayEntity(serialized.getBytes(),
+                    ContentType.parse(contentType != null ? contentType : serialized.getContentType().toString()));
+        }
+
+        if (payload instanceof byte[]) {
+            return new ByteArrayEntity((byte[]) payload, contentType != null ? ContentType.parse(contentType) : ContentType.APPLICATION_OCTET_STREAM);
+        }
+
+        if (payload instanceof String) {
+            return new ByteArrayEntity(((String) payload).getBytes(StandardCharsets.UTF_8),
+                    contentType != null ? ContentType.parse(contentType) : ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8));
+        }
+
+        try {
+            return new ByteArrayEntity(objectMapper.writeValueAsBytes(payload),
+                    contentType != null ? ContentType.parse(contentType) : ContentType.APPLICATION_JSON);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Timeout.ofMilliseconds(0) would mean infinite, so an exhausted budget becomes 1ms
+    private static Timeout min(Timeout configured, Duration limit) {
+        final long limitMillis = Math.max(1, limit.toMillis());
+        if (configured != null && !configured.isDisabled() && configured.toMilliseconds() > 0 && configured.toMilliseconds() < limitMillis) {
+            return configured;
+        }
+
+        return Timeout.ofMilliseconds(limitMillis);
+    }
+
+    private static HttpHeaders toHttpHeaders(Header[] headers) {
+        final HttpHeaders httpHeaders = new HttpHeaders();
+        for (Header header : headers) {
+            httpHeaders.add(header.getName(), header.getValue());
+        }
+
+        return httpHeaders;
+    }
+
+    private static URI toUri(String url) {
+        try {
+            return URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return UriComponentsBuilder.fromUriString(url)
+                    .build()
+                    .encode()
+                    .toUri();
+        }
+    }
+}
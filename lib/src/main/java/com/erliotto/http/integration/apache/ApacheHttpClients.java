@@ -0,0 +1,82 @@
+package com.erliotto.http.integration.apache;
+
+import com.erliotto.http.integration.core.DockingPointMetrics;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+public final class ApacheHttpClients {
+    private ApacheHttpClients() {
+    }
+
+    // timeToLive: connections are closed after this age even when busy (null: no limit)
+    // validateAfterInactivity: an idle connection is checked for staleness before it is reused
+    public static PoolingHttpClientConnectionManager createConnectionManager(int maxTotal,
+                                                                             int maxPerRoute,
+                                                                             Duration timeToLive,
+                                                                             Duration validateAfterInactivity) {
+        if (maxTotal <= 0 || maxPerRoute <= 0 || maxPerRoute > maxTotal) {
+            throw new IllegalArgumentException(String.format("invalid pool limits: %d per route, %d total", maxPerRoute, maxTotal));
+        }
+
+        final PoolingHttpClientConnectionManagerBuilder builder = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute);
+
+        if (timeToLive != null) {
+            builder.setConnectionTimeToLive(TimeValue.ofMilliseconds(timeToLive.toMillis()));
+        }
+
+        if (validateAfterInactivity != null) {
+            builder.setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivity.toMillis()));
+        }
+
+        return builder.build();
+    }
+
+    // connectionRequestTimeout: the wait for a pooled connection, keep it short so an exhausted pool fails fast
+    // keepAlive: how long an idle connection is kept when the server sends no Keep-Alive header
+    public static RequestConfig createRequestConfig(Duration connectTimeout,
+                                                    Duration connectionRequestTimeout,
+                                                    Duration responseTimeout,
+                                                    Duration keepAlive) {
+        return RequestConfig.custom()
+                .setConnectTimeout(toTimeout(connectTimeout))
+                .setConnectionRequestTimeout(toTimeout(connectionRequestTimeout))
+                .setResponseTimeout(toTimeout(responseTimeout))
+                .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                .build();
+    }
+
+    // a background thread closes expired connections and those idle for longer than maxIdleTime
+    public static CloseableHttpClient createHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                       RequestConfig requestConfig,
+                                                       Duration maxIdleTime) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(maxIdleTime.toMillis()))
+                .build();
+    }
+
+    // leased, pending (callers waiting for a connection), available and max of the whole pool
+    public static void bindMetrics(PoolingHttpClientConnectionManager connectionManager, DockingPointMetrics metrics, String poolName) {
+        metrics.bindConnectionPool(poolName,
+                () -> connectionManager.getTotalStats().getLeased(),
+                () -> connectionManager.getTotalStats().getPending(),
+                () -> connectionManager.getTotalStats().getAvailable(),
+                () -> connectionManager.getTotalStats().getMax());
+    }
+
+    private static Timeout toTimeout(Duration duration) {
+        return duration != null ? Timeout.of(duration.toMillis(), TimeUnit.MILLISECONDS) : Timeout.DISABLED;
+    }
+}
@@ -0,0 +1,17 @@
+package com.erliotto.http.integration.client;
+
+import org.springframework.http.HttpMethod;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// path is appended to the client's base url; {name} segments are filled from @PathParam parameters
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.CLASS)
+public @interface Call {
+    HttpMethod method();
+
+    String path();
+}
@@ -0,0 +1,13 @@
+package com.erliotto.http.integration.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// An interface the client-processor module implements at build time as <Name>Impl, one frozen
+// DockingPoint per method. Each method needs @Call and at least one @OnStatus or @OnOtherStatus.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface DockingClient {
+}
@@ -0,0 +1,13 @@
+package com.erliotto.http.integration.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// sent as request header value; skipped when the argument is null
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.CLASS)
+public @interface HeaderParam {
+    String value();
+}
@@ -0,0 +1,13 @@
+package com.erliotto.http.integration.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// DockingPoint.registerDefault(type)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.CLASS)
+public @interface OnOtherStatus {
+    Class<?> value();
+}
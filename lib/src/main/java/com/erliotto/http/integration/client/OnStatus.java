@@ -0,0 +1,23 @@
+package com.erliotto.http.integration.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// DockingPoint.register(code, type): type must be assignable to the method's response type
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.CLASS)
+@Repeatable(OnStatus.List.class)
+public @interface OnStatus {
+    int code();
+
+    Class<?> type();
+
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.CLASS)
+    @interface List {
+        OnStatus[] value();
+    }
+}
@@ -0,0 +1,13 @@
+package com.erliotto.http.integration.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// fills {value} in the @Call path, percent-encoded as a path segment; null throws IllegalArgumentException
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.CLASS)
+public @interface PathParam {
+    String value();
+}
@@ -1,25 +1,183 @@
 package com.erliotto.http.integration.component;
 
+import com.erliotto.http.integration.apache.ApacheHttpClientResultProvider;
+import com.erliotto.http.integration.apache.ApacheHttpClients;
+import com.erliotto.http.integration.core.CachingHttpResultProvider;
+import com.erliotto.http.integration.core.CircuitBreakingHttpResultProvider;
+import com.erliotto.http.integration.core.CoalescingHttpResultProvider;
+import com.erliotto.http.integration.core.CompressingHttpResultProvider;
+import com.erliotto.http.integration.core.ConcurrencyLimitingHttpResultProvider;
+import com.erliotto.http.integration.core.DockingPointMetrics;
+import com.erliotto.http.integration.core.DslJsonResponseDecoder;
+import com.erliotto.http.integration.core.ExecutorHttpResultProvider;
+import com.erliotto.http.integration.core.HedgingHttpResultProvider;
 import com.erliotto.http.integration.core.HttpResultProvider;
+import com.erliotto.http.integration.core.JacksonResponseDecoder;
+import com.erliotto.http.integration.core.ResponseDecoder;
+import com.erliotto.http.integration.core.VirtualThreads;
 import com.erliotto.http.integration.core.WebClientHttpResultProvider;
+import com.erliotto.http.integration.metrics.MicrometerDockingPointMetrics;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 @Configuration
-@EnableConfigurationProperties
+@EnableConfigurationProperties(DockingPointProperties.class)
 public class DockingPointConfiguration {
+    static final String HEDGING_SCHEDULER = "dockingPointHedgingScheduler";
+    public static final String BLOCKING_EXECUTOR = "dockingPointBlockingExecutor";
 
     @Bean
     @Primary
     @ConditionalOnMissingBean
-    HttpResultProvider createHttpResultProvider(WebClient.Builder webClientBuilder) {
-        return new WebClientHttpResultProvider(webClientBuilder);
+    @ConditionalOnProperty(prefix = "docking-point.apache-http-client", name = "enabled", havingValue = "false", matchIfMissing = true)
+    HttpResultProvider createHttpResultProvider(WebClient.Builder webClientBuilder,
+                                                ConnectionProvider connectionProvider,
+                                                ObjectMapper objectMapper,
+                                                DockingPointMetrics metrics,
+                                                DockingPointProperties properties,
+                                                @Qualifier(HEDGING_SCHEDULER) ObjectProvider<ScheduledExecutorService> hedgingScheduler) {
+        final DockingPointProperties.WebClient webClient = properties.getWebClient();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider);
+        if (webClient.getConnectTimeout() != null) {
+            final int connectTimeoutMillis = (int) webClient.getConnectTimeout().toMillis();
+            httpClient = httpClient.tcpConfiguration(tcpClient -> tcpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis));
+        }
+
+        final WebClient.Builder pooledWebClientBuilder = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient));
+
+        final WebClientHttpResultProvider transport = new WebClientHttpResultProvider(pooledWebClientBuilder, webClient.getTimeout());
+        HttpResultProvider httpResultProvider = transport;
+
+        // hedging cancels the losing call, so it must sit right on the transport
+        final DockingPointProperties.Hedging hedging = properties.getHedging();
+        if (hedging.isEnabled()) {
+            httpResultProvider = new HedgingHttpResultProvider(transport,
+                    hedgingScheduler.getObject(), hedging.getPercentile(), hedging.getMinDelay(), hedging.getBudgetPercent());
+        }
+
+        return decorate(httpResultProvider, objectMapper, metrics, properties);
+    }
+
+    static HttpResultProvider decorate(HttpResultProvider transport,
+                                       ObjectMapper objectMapper,
+                                       DockingPointMetrics metrics,
+                                       DockingPointProperties properties) {
+        HttpResultProvider httpResultProvider = transport;
+
+        // first, so the cache keeps compressed bodies
+        final DockingPointProperties.Compression compression = properties.getCompression();
+        if (compression.isEnabled()) {
+            httpResultProvider = new CompressingHttpResultProvider(httpResultProvider, objectMapper,
+                    compression.getAcceptEncodings(), compression.getRequestMinSize());
+        }
+
+        // below coalescing and the cache, so the limiter counts upstream calls only (a hedged call once)
+        final DockingPointProperties.ConcurrencyLimit concurrencyLimit = properties.getConcurrencyLimit();
+        if (concurrencyLimit.isEnabled()) {
+            httpResultProvider = new ConcurrencyLimitingHttpResultProvider(httpResultProvider, metrics,
+                    concurrencyLimit.getInitialLimit(), concurrencyLimit.getMinLimit(), concurrencyLimit.getMaxLimit());
+        }
+
+        final DockingPointProperties.CircuitBreaker circuitBreaker = properties.getCircuitBreaker();
+        if (circuitBreaker.isEnabled()) {
+            httpResultProvider = new CircuitBreakingHttpResultProvider(httpResultProvider,
+                    circuitBreaker.getWindowSize(), circuitBreaker.getFailureRateThreshold(),
+                    circuitBreaker.getSlowCallDuration(), circuitBreaker.getOpenDuration(), circuitBreaker.getOpenStatusCode());
+        }
+
+        // coalescing sits below the cache, so concurrent cache misses share one upstream call
+        if (properties.getCoalescing().isEnabled()) {
+            httpResultProvider = new CoalescingHttpResultProvider(httpResultProvider, properties.getCoalescing().getKeyHeaders());
+        }
+
+        if (properties.getCache().isEnabled()) {
+            httpResultProvider = new CachingHttpResultProvider(httpResultProvider, properties.getCache().getMaxEntries());
+        }
+
+        return httpResultProvider;
+    }
+
+    @Bean(name = HEDGING_SCHEDULER, destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(prefix = "docking-point.hedging", name = "enabled", havingValue = "true")
+    ScheduledExecutorService createHedgingScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, HEDGING_SCHEDULER);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // for ExecutorHttpResultProvider around blocking providers: virtual threads on JDK 21+, before that
+    // no more platform threads than the Apache pool has connections, since more would only wait for one
+    @Bean(name = BLOCKING_EXECUTOR, destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "docking-point.virtual-threads", name = "enabled", havingValue = "true")
+    ExecutorService createBlockingExecutor(DockingPointProperties properties) {
+        return VirtualThreads.newExecutor(BLOCKING_EXECUTOR, properties.getApacheHttpClient().getMaxTotal());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnMissingBean
+    ConnectionProvider createConnectionProvider(DockingPointProperties properties) {
+        final DockingPointProperties.WebClient webClient = properties.getWebClient();
+
+        final ConnectionProvider.Builder builder = ConnectionProvider.builder("docking-point")
+                .maxConnections(webClient.getMaxConnections())
+                .pendingAcquireTimeout(webClient.getPendingAcquireTimeout())
+                .maxIdleTime(webClient.getMaxIdleTime());
+
+        if (webClient.getPendingAcquireMaxCount() > 0) {
+            builder.pendingAcquireMaxCount(webClient.getPendingAcquireMaxCount());
+        }
+
+        if (webClient.getMaxLifeTime() != null) {
+            builder.maxLifeTime(webClient.getMaxLifeTime());
+        }
+
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    DockingPointMetrics createDockingPointMetrics() {
+        return DockingPointMetrics.NOOP;
+    }
+
+    // the DockingPoint-wide codec, docking-point.decoder=jackson|afterburner|dsl-json
+    @Bean
+    @ConditionalOnMissingBean
+    ResponseDecoder createResponseDecoder(ObjectMapper objectMapper, DockingPointProperties properties) {
+        switch (properties.getDecoder()) {
+            case AFTERBURNER:
+                return JacksonResponseDecoder.afterburner(objectMapper);
+            case DSL_JSON:
+                return new DslJsonResponseDecoder();
+            default:
+                return new JacksonResponseDecoder(objectMapper);
+        }
     }
 
     @Bean
@@ -30,4 +188,80 @@ public class DockingPointConfiguration {
 
         return objectMapper;
     }
+
+    // the Apache client is optional and replaces the WebClient transport when enabled
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(CloseableHttpClient.class)
+    @ConditionalOnProperty(prefix = "docking-point.apache-http-client", name = "enabled", havingValue = "true")
+    static class ApacheHttpClientConfiguration {
+
+        @Bean(destroyMethod = "close")
+        @ConditionalOnMissingBean
+        PoolingHttpClientConnectionManager createPoolingHttpClientConnectionManager(DockingPointProperties properties,
+                                                                                    DockingPointMetrics metrics) {
+            final DockingPointProperties.ApacheHttpClient apacheHttpClient = properties.getApacheHttpClient();
+
+            final PoolingHttpClientConnectionManager connectionManager = ApacheHttpClients.createConnectionManager(
+                    apacheHttpClient.getMaxTotal(), apacheHttpClient.getMaxPerRoute(),
+                    apacheHttpClient.getTimeToLive(), apacheHttpClient.getValidateAfterInactivity());
+            ApacheHttpClients.bindMetrics(connectionManager, metrics, "docking-point");
+
+            return connectionManager;
+        }
+
+        // closing the client stops its idle connection evictor and closes the connection manager
+        @Bean(destroyMethod = "close")
+        @ConditionalOnMissingBean
+        CloseableHttpClient createCloseableHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                      DockingPointProperties properties) {
+            return ApacheHttpClients.createHttpClient(connectionManager, requestConfig(properties),
+                    properties.getApacheHttpClient().getMaxIdleTime());
+        }
+
+        // hedging needs an async transport and does not apply here; with virtual threads enabled the
+        // blocking calls of callAsync/callAll move to the blocking executor
+        @Bean
+        @Primary
+        @ConditionalOnMissingBean
+        HttpResultProvider createApacheHttpResultProvider(CloseableHttpClient httpClient,
+                                                          ObjectMapper objectMapper,
+                                                          DockingPointMetrics metrics,
+                                                          DockingPointProperties properties,
+                                                          @Qualifier(BLOCKING_EXECUTOR) ObjectProvider<ExecutorService> blockingExecutor) {
+            HttpResultProvider transport = new ApacheHttpClientResultProvider(httpClient, objectMapper, requestConfig(properties));
+
+            final ExecutorService executor = blockingExecutor.getIfAvailable();
+            if (executor != null) {
+                transport = new ExecutorHttpResultProvider(transport, executor);
+            }
+
+            return decorate(transport, objectMapper, metrics, properties);
+        }
+
+        private static RequestConfig requestConfig(DockingPointProperties properties) {
+            final DockingPointProperties.ApacheHttpClient apacheHttpClient = properties.getApacheHttpClient();
+
+            return ApacheHttpClients.createRequestConfig(
+                    apacheHttpClient.getConnectTimeout(), apacheHttpClient.getConnectionRequestTimeout(),
+                    apacheHttpClient.getResponseTimeout(), apacheHttpClient.getKeepAlive());
+        }
+    }
+
+    // micrometer is optional: only touched when it is on the classpath
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MicrometerConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        DockingPointMetrics createMicrometerDockingPointMetrics(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                DockingPointProperties properties) {
+            final MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return DockingPointMetrics.NOOP;
+            }
+
+            return new MicrometerDockingPointMetrics(registry, properties.getMetrics().getMaxHosts());
+        }
+    }
 }
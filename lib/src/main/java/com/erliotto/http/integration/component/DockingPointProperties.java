@@ -0,0 +1,509 @@
+package com.erliotto.http.integration.component;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "docking-point")
+public class DockingPointProperties {
+    public enum Decoder {
+        JACKSON,
+        // needs jackson-module-afterburner
+        AFTERBURNER,
+        // needs com.dslplatform:dsl-json-java8
+        DSL_JSON
+    }
+
+    private Decoder decoder = Decoder.JACKSON;
+
+    private final WebClient webClient = new WebClient();
+
+    private final Metrics metrics = new Metrics();
+
+    private final Cache cache = new Cache();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private final Hedging hedging = new Hedging();
+
+    private final ApacheHttpClient apacheHttpClient = new ApacheHttpClient();
+
+    private final Compression compression = new Compression();
+
+    public Decoder getDecoder() {
+        return decoder;
+    }
+
+    public void setDecoder(Decoder decoder) {
+        this.decoder = decoder;
+    }
+
+    public WebClient getWebClient() {
+        return webClient;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Coalescing getCoalescing() {
+        return coalescing;
+    }
+
+    public ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Hedging getHedging() {
+        return hedging;
+    }
+
+    public ApacheHttpClient getApacheHttpClient() {
+        return apacheHttpClient;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public static class WebClient {
+        private int maxConnections = ConnectionProvider.DEFAULT_POOL_MAX_CONNECTIONS;
+
+        // <= 0 keeps the reactor-netty default (2 * maxConnections)
+        private int pendingAcquireMaxCount = 0;
+
+        private Duration pendingAcquireTimeout = Duration.ofMillis(ConnectionProvider.DEFAULT_POOL_ACQUIRE_TIMEOUT);
+
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        private Duration maxLifeTime;
+
+        private Duration connectTimeout = Duration.ofSeconds(10);
+
+        // total time of a call made without a Deadline; empty for no limit
+        private Duration timeout = Duration.ofSeconds(60);
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+
+        public Duration getPendingAcquireTimeout() {
+            return pendingAcquireTimeout;
+        }
+
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+        }
+
+        public Duration getMaxIdleTime() {
+            return maxIdleTime;
+        }
+
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+
+        public Duration getMaxLifeTime() {
+            return maxLifeTime;
+        }
+
+        public void setMaxLifeTime(Duration maxLifeTime) {
+            this.maxLifeTime = maxLifeTime;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Metrics {
+        // distinct host tag values, later hosts are reported as "other"
+        private int maxHosts = 100;
+
+        public int getMaxHosts() {
+            return maxHosts;
+        }
+
+        public void setMaxHosts(int maxHosts) {
+            this.maxHosts = maxHosts;
+        }
+    }
+
+    public static class Cache {
+        private boolean enabled = false;
+
+        private int maxEntries = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class Coalescing {
+        private boolean enabled = false;
+
+        // request headers that make otherwise identical calls distinct
+        private List<String> keyHeaders = new ArrayList<>(Arrays.asList(
+                HttpHeaders.AUTHORIZATION, HttpHeaders.COOKIE, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_LANGUAGE));
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getKeyHeaders() {
+            return keyHeaders;
+        }
+
+        public void setKeyHeaders(List<String> keyHeaders) {
+            this.keyHeaders = keyHeaders;
+        }
+    }
+
+    public static class ConcurrencyLimit {
+        private boolean enabled = false;
+
+        // per host in-flight calls: the limit starts at initialLimit and adapts within [minLimit, maxLimit]
+        private int initialLimit = 20;
+
+        private int minLimit = 1;
+
+        private int maxLimit = 200;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+
+    public static class CircuitBreaker {
+        private boolean enabled = false;
+
+        // calls per host the failure rate is computed over
+        private int windowSize = 20;
+
+        // percent of failed or slow calls in the window that opens the circuit
+        private int failureRateThreshold = 50;
+
+        private Duration slowCallDuration = Duration.ofSeconds(5);
+
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        // status of the synthetic result returned while the circuit is open
+        private int openStatusCode = 503;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public Duration getSlowCallDuration() {
+            return slowCallDuration;
+        }
+
+        public void setSlowCallDuration(Duration slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getOpenStatusCode() {
+            return openStatusCode;
+        }
+
+        public void setOpenStatusCode(int openStatusCode) {
+            this.openStatusCode = openStatusCode;
+        }
+    }
+
+    public static class Hedging {
+        private boolean enabled = false;
+
+        // a hedge is sent when the call is slower than this latency percentile of its host
+        private double percentile = 95;
+
+        private Duration minDelay = Duration.ofMillis(10);
+
+        // hedges stay below this share of the calls
+        private int budgetPercent = 5;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public int getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(int budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+    }
+
+    public static class ApacheHttpClient {
+        private boolean enabled = false;
+
+        private int maxTotal = 200;
+
+        private int maxPerRoute = 20;
+
+        private Duration connectTimeout = Duration.ofSeconds(10);
+
+        // the wait for a pooled connection when the route or the pool is exhausted
+        private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+        private Duration responseTimeout = Duration.ofSeconds(60);
+
+        // used when the server sends no Keep-Alive header
+        private Duration keepAlive = Duration.ofSeconds(30);
+
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        // null: connections are reused for as long as they stay open
+        private Duration timeToLive;
+
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public void setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+        }
+
+        public int getMaxPerRoute() {
+            return maxPerRoute;
+        }
+
+        public void setMaxPerRoute(int maxPerRoute) {
+            this.maxPerRoute = maxPerRoute;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getConnectionRequestTimeout() {
+            return connectionRequestTimeout;
+        }
+
+        public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+            this.connectionRequestTimeout = connectionRequestTimeout;
+        }
+
+        public Duration getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        public void setResponseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public Duration getMaxIdleTime() {
+            return maxIdleTime;
+        }
+
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getValidateAfterInactivity() {
+            return validateAfterInactivity;
+        }
+
+        public void setValidateAfterInactivity(Duration validateAfterInactivity) {
+            this.validateAfterInactivity = validateAfterInactivity;
+        }
+    }
+
+    public static class Compression {
+        private boolean enabled = false;
+
+        // advertised in Accept-Encoding in this order; br needs org.brotli:dec on the classpath
+        private List<String> acceptEncodings = new ArrayList<>(Arrays.asList("gzip", "deflate", "br"));
+
+        // payloads of at least this many bytes are sent gzipped, < 0 never compresses payloads
+        private int requestMinSize = -1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getAcceptEncodings() {
+            return acceptEncodings;
+        }
+
+        public void setAcceptEncodings(List<String> acceptEncodings) {
+            this.acceptEncodings = acceptEncodings;
+        }
+
+        public int getRequestMinSize() {
+            return requestMinSize;
+        }
+
+        public void setRequestMinSize(int requestMinSize) {
+            this.requestMinSize = requestMinSize;
+        }
+    }
+}
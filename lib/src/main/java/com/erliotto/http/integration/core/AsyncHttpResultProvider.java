@@ -0,0 +1,10 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncHttpResultProvider {
+    CompletableFuture<HttpResultProvider.Result> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload);
+}
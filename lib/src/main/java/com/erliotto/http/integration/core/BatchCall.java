@@ -0,0 +1,18 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+public final class BatchCall {
+    public final HttpMethod httpMethod;
+    public final String url;
+    public final HttpHeaders httpHeaders;
+    public final Object payload;
+
+    public BatchCall(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        this.httpMethod = httpMethod;
+        this.url = url;
+        this.httpHeaders = httpHeaders;
+        this.payload = payload;
+    }
+}
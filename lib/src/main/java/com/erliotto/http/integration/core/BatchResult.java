@@ -0,0 +1,20 @@
+package com.erliotto.http.integration.core;
+
+public final class BatchResult<TResponse extends HttpStatusHolder> {
+    public final int index;
+    public final BatchCall call;
+    // null when the status is not registered, or when the call failed
+    public final TResponse response;
+    public final Throwable error;
+
+    BatchResult(int index, BatchCall call, TResponse response, Throwable error) {
+        this.index = index;
+        this.call = call;
+        this.response = response;
+        this.error = error;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.erliotto.http.integration.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.springframework.http.MediaType;
+
+// Mappers for DockingPoint.registerFormat. Each needs its optional dataformat module on the classpath:
+// jackson-dataformat-smile, jackson-dataformat-cbor, org.msgpack:jackson-dataformat-msgpack.
+public final class BinaryFormats {
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    public static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    public static final MediaType MESSAGE_PACK = new MediaType("application", "x-msgpack");
+
+    private BinaryFormats() {
+    }
+
+    public static ObjectMapper smile() {
+        return configure(new ObjectMapper(Smile.factory()));
+    }
+
+    public static ObjectMapper cbor() {
+        return configure(new ObjectMapper(Cbor.factory()));
+    }
+
+    public static ObjectMapper messagePack() {
+        return configure(new ObjectMapper(MessagePack.factory()));
+    }
+
+    // A factory class named here is resolved when this class is verified, so each sits in its own holder:
+    // a missing module then fails only the mapper that needs it, not the MediaType constants.
+    private static final class Smile {
+        static JsonFactory factory() {
+            return new SmileFactory();
+        }
+    }
+
+    private static final class Cbor {
+        static JsonFactory factory() {
+            return new CBORFactory();
+        }
+    }
+
+    private static final class MessagePack {
+        static JsonFactory factory() {
+            return new MessagePackFactory();
+        }
+    }
+
+    // same leniency as the default JSON mapper
+    private static ObjectMapper configure(ObjectMapper objectMapper) {
+        return objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+}
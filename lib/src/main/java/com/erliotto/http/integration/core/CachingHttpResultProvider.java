@@ -0,0 +1,373 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Shared (server-side) cache for GET results: honors Cache-Control max-age/s-maxage, no-cache,
+// no-store and private (Expires when there is no max-age), and revalidates stale entries with
+// If-None-Match when an ETag is known; a 304 updates the stored headers (RFC 9111 section 4.3.4).
+// A response to a request with Authorization is stored only when public, s-maxage or
+// must-revalidate allows a shared cache to (RFC 9111 section 3.5).
+public final class CachingHttpResultProvider implements HttpResultProvider, AsyncHttpResultProvider, DelegatingHttpResultProvider {
+    private final HttpResultProvider delegate;
+    private final Store store;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    public CachingHttpResultProvider(HttpResultProvider delegate, int maxEntries) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate");
+        }
+
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries");
+        }
+
+        this.delegate = delegate;
+        this.store = new Store(maxEntries);
+    }
+
+    @Override
+    public Object getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        return HttpResultProviders.join(callAsync(httpMethod, url, httpHeaders, payload));
+    }
+
+    @Override
+    public CompletableFuture<Result> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        if (httpMethod != HttpMethod.GET || payload != null) {
+            return HttpResultProviders.callAsync(delegate, httpMethod, url, httpHeaders, payload);
+        }
+
+        final CachedEntry entry = store.get(url);
+        if (entry == null || !entry.matches(httpHeaders)) {
+            misses.increment();
+            return fetch(url, httpHeaders);
+        }
+
+        if (entry.isFresh(System.nanoTime())) {
+            hits.increment();
+            return CompletableFuture.completedFuture(entry.result);
+        }
+
+        if (entry.eTag == null) {
+            misses.increment();
+            return fetch(url, httpHeaders);
+        }
+
+        return revalidate(url, httpHeaders, entry);
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), revalidations.sum(), store.evictions.sum(), store.size());
+    }
+
+    private CompletableFuture<Result> fetch(String url, HttpHeaders httpHeaders) {
+        final long requestNanos = System.nanoTime();
+
+        return HttpResultProviders.callAsync(delegate, HttpMethod.GET, url, httpHeaders, null)
+                .thenApply(result -> {
+                    store(url, httpHeaders, result, requestNanos);
+                    return result;
+                });
+    }
+
+    private CompletableFuture<Result> revalidate(String url, HttpHeaders httpHeaders, CachedEntry entry) {
+        final HttpHeaders conditionalHeaders = new HttpHeaders();
+        if (httpHeaders != null) {
+            conditionalHeaders.putAll(httpHeaders);
+        }
+        conditionalHeaders.setIfNoneMatch(entry.eTag);
+
+        final long requestNanos = System.nanoTime();
+
+        return HttpResultProviders.callAsync(delegate, HttpMethod.GET, url, conditionalHeaders, null)
+                .thenApply(result -> {
+                    if (result != null && result.rawStatusCode == HttpStatus.NOT_MODIFIED.value()) {
+                        revalidations.increment();
+
+                        final CachedEntry refreshed = entry.refresh(result.headers, requestNanos);
+                        store.put(url, refreshed);
+                        return refreshed.result;
+                    }
+
+                    misses.increment();
+                    store(url, httpHeaders, result, requestNanos);
+                    return result;
+                });
+    }
+
+    private void store(String url, HttpHeaders requestHeaders, Result result, long requestNanos) {
+        if (result == null || result.rawStatusCode != HttpStatus.OK.value()) {
+            return;
+        }
+
+        final CacheControl cacheControl = CacheControl.parse(result.headers);
+        final List<String> vary = result.headers.getVary();
+        if (cacheControl.noStore || cacheControl.isPrivate || vary.contains("*")
+                || (requestHeaders != null && requestHeaders.containsKey(HttpHeaders.AUTHORIZATION) && !cacheControl.allowsAuthorized())) {
+            store.remove(url);
+            return;
+        }
+
+        // without a validator an entry that is stale from the start can never be used
+        final String eTag = result.headers.getETag();
+        if ((cacheControl.noCache || cacheControl.maxAgeSeconds <= 0) && eTag == null) {
+            store.remove(url);
+            return;
+        }
+
+        store.put(url, new CachedEntry(result, eTag, vary, varyValues(vary, requestHeaders), expiresNanos(cacheControl, result.headers, requestNanos)));
+    }
+
+    private static long expiresNanos(CacheControl cacheControl, HttpHeaders responseHeaders, long requestNanos) {
+        if (cacheControl.noCache || cacheControl.maxAgeSeconds <= 0) {
+            return requestNanos;
+        }
+
+        // Age counts time already spent in upstream caches
+        final long ageSeconds = parseSeconds(responseHeaders.getFirst(HttpHeaders.AGE));
+        return requestNanos + TimeUnit.SECONDS.toNanos(Math.max(0, cacheControl.maxAgeSeconds - Math.max(0, ageSeconds)));
+    }
+
+    // a header the request lacks is null whether the request had empty headers or none at all
+    private static List<List<String>> varyValues(List<String> vary, HttpHeaders requestHeaders) {
+        if (vary.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<List<String>> values = new ArrayList<>(vary.size());
+        for (String name : vary) {
+            values.add(requestHeaders != null ? requestHeaders.get(name) : null);
+        }
+
+        return values;
+    }
+
+    private static long parseSeconds(String value) {
+        if (value == null) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public static final class Stats {
+        public final long hits;
+        public final long misses;
+        public final long revalidations;
+        public final long evictions;
+        public final int size;
+
+        private Stats(long hits, long misses, long revalidations, long evictions, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.revalidations = revalidations;
+            this.evictions = evictions;
+            this.size = size;
+        }
+
+        public double hitRatio() {
+            final long requests = hits + misses + revalidations;
+            return requests == 0 ? 0 : (double) (hits + revalidations) / requests;
+        }
+    }
+
+    private static final class CachedEntry {
+        private final Result result;
+        private final String eTag;
+        private final List<String> vary;
+        private final List<List<String>> varyValues;
+        private final long expiresNanos;
+
+        private CachedEntry(Result result, String eTag, List<String> vary, List<List<String>> varyValues, long expiresNanos) {
+            this.result = result;
+            this.eTag = eTag;
+            this.vary = vary;
+            this.varyValues = varyValues;
+            this.expiresNanos = expiresNanos;
+        }
+
+        private boolean isFresh(long nowNanos) {
+            return nowNanos - expiresNanos < 0;
+        }
+
+        private boolean matches(HttpHeaders requestHeaders) {
+            return varyValues.equals(varyValues(vary, requestHeaders));
+        }
+
+        // the 304's headers replace the stored ones they name; the rest, Cache-Control and Expires
+        // included, still describe the stored representation
+        private CachedEntry refresh(HttpHeaders notModifiedHeaders, long requestNanos) {
+            final HttpHeaders headers = new HttpHeaders();
+            headers.putAll(result.headers);
+            // the stored Age was for the first response
+            headers.remove(HttpHeaders.AGE);
+            notModifiedHeaders.forEach((name, values) -> {
+                // the stored body keeps its own framing and coding
+                if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                    headers.put(name, values);
+                }
+            });
+
+            final String eTag = headers.getETag();
+            return new CachedEntry(new Result(result.rawStatusCode, headers, result.body),
+                    eTag != null ? eTag : this.eTag,
+                    vary,
+                    varyValues,
+                    expiresNanos(CacheControl.parse(headers), headers, requestNanos));
+        }
+    }
+
+    private static final class CacheControl {
+        private final long maxAgeSeconds;
+        private final boolean noCache;
+        private final boolean noStore;
+        private final boolean isPrivate;
+        private final boolean isPublic;
+        private final boolean mustRevalidate;
+        private final boolean hasSharedMaxAge;
+
+        private CacheControl(long maxAgeSeconds,
+                             boolean noCache,
+                             boolean noStore,
+                             boolean isPrivate,
+                             boolean isPublic,
+                             boolean mustRevalidate,
+                             boolean hasSharedMaxAge) {
+            this.maxAgeSeconds = maxAgeSeconds;
+            this.noCache = noCache;
+            this.noStore = noStore;
+            this.isPrivate = isPrivate;
+            this.isPublic = isPublic;
+            this.mustRevalidate = mustRevalidate;
+            this.hasSharedMaxAge = hasSharedMaxAge;
+        }
+
+        // the directives that let a shared cache store a response to an authorized request
+        private boolean allowsAuthorized() {
+            return isPublic || mustRevalidate || hasSharedMaxAge;
+        }
+
+        private static CacheControl parse(HttpHeaders headers) {
+            long maxAge = -1;
+            long sharedMaxAge = -1;
+            boolean noCache = false;
+            boolean noStore = false;
+            boolean isPrivate = false;
+            boolean isPublic = false;
+            boolean mustRevalidate = false;
+
+            for (String header : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+                for (String directive : header.split(",")) {
+                    final String[] nameValue = directive.trim().split("=", 2);
+                    final String name = nameValue[0].trim().toLowerCase(Locale.ROOT);
+                    final String value = nameValue.length > 1 ? nameValue[1].trim().replace("\"", "") : null;
+
+                    switch (name) {
+                        case "max-age":
+                            maxAge = parseSeconds(value);
+                            break;
+                        case "s-maxage":
+                            sharedMaxAge = parseSeconds(value);
+                            break;
+                        case "no-cache":
+                            noCache = true;
+                            break;
+                        case "no-store":
+                            noStore = true;
+                            break;
+                        case "private":
+                            isPrivate = true;
+                            break;
+                        case "public":
+                            isPublic = true;
+                            break;
+                        case "must-revalidate":
+                            mustRevalidate = true;
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+
+            if (sharedMaxAge >= 0) {
+                maxAge = sharedMaxAge;
+            } else if (maxAge < 0) {
+                maxAge = expiresSeconds(headers);
+            }
+
+            return new CacheControl(maxAge, noCache, noStore, isPrivate, isPublic, mustRevalidate, sharedMaxAge >= 0);
+        }
+
+        // Expires relative to the response's Date; -1 when either is missing or malformed
+        private static long expiresSeconds(HttpHeaders headers) {
+            final long expires = headers.getExpires();
+            final long date = headers.getDate();
+            if (expires < 0 || date < 0) {
+                return -1;
+            }
+
+            return Math.max(0, TimeUnit.MILLISECONDS.toSeconds(expires - date));
+        }
+    }
+
+    // LRU bounded by entry count
+    private static final class Store {
+        private final Map<String, CachedEntry> entries;
+        private final LongAdder evictions = new LongAdder();
+
+        private Store(int maxEntries) {
+            this.entries = new LinkedHashMap<String, CachedEntry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedEntry> eldest) {
+                    if (size() > maxEntries) {
+                        evictions.increment();
+                        return true;
+                    }
+
+                    return false;
+                }
+            };
+        }
+
+        private synchronized CachedEntry get(String key) {
+            return entries.get(key);
+        }
+
+        private synchronized void put(String key, CachedEntry entry) {
+            entries.put(key, Objects.requireNonNull(entry));
+        }
+
+        private synchronized void remove(String key) {
+            entries.remove(key);
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Per host circuit breaker. A call fails when it throws, answers 5xx or takes longer than slowCallDuration.
+// Once windowSize calls are recorded and failureRateThreshold percent of them failed, the circuit opens:
+// calls are not sent and get a synthetic openStatusCode result (marked with CIRCUIT_BREAKER_HEADER),
+// which DockingPoint dispatches like any other status (a class registered for it is built from an empty
+// JSON object, as there is no body to decode). After openDuration one probe call is let through
+// (half-open); it closes the circuit on success and reopens it on failure.
+public final class CircuitBreakingHttpResultProvider implements HttpResultProvider, AsyncHttpResultProvider, DelegatingHttpResultProvider {
+    public static final String CIRCUIT_BREAKER_HEADER = "X-Circuit-Breaker";
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final HttpResultProvider delegate;
+    private final int windowSize;
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final Result openResult;
+    private final ConcurrentMap<String, Circuit> circuits;
+
+    public CircuitBreakingHttpResultProvider(HttpResultProvider delegate,
+                                             int windowSize,
+                                             int failureRateThreshold,
+                                             Duration slowCallDuration,
+                                             Duration openDuration,
+                                             int openStatusCode) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate");
+        }
+
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize");
+        }
+
+        if (failureRateThreshold <= 0 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("failureRateThreshold");
+        }
+
+        if (slowCallDuration == null || openDuration == null) {
+            throw new IllegalArgumentException("duration");
+        }
+
+        final HttpHeaders openHeaders = new HttpHeaders();
+        openHeaders.set(CIRCUIT_BREAKER_HEADER, "open");
+
+        this.delegate = delegate;
+        this.windowSize = windowSize;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.openResult = new Result(openStatusCode, openHeaders, new byte[0]);
+        this.circuits = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Object getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final Circuit circuit = circuitFor(url);
+        final Permit permit = circuit.acquire();
+        if (permit == null) {
+            return openResult;
+        }
+
+        final long start = System.nanoTime();
+        Result result = null;
+        Throwable error = null;
+        try {
+            result = delegate.call(httpMethod, url, httpHeaders, payload);
+            return result;
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            circuit.release(permit, System.nanoTime() - start, result, error);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Result> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final Circuit circuit = circuitFor(url);
+        final Permit permit = circuit.acquire();
+        if (permit == null) {
+            return CompletableFuture.completedFuture(openResult);
+        }
+
+        final long start = System.nanoTime();
+        final CompletableFuture<Result> future;
+        try {
+            future = HttpResultProviders.callAsync(delegate, httpMethod, url, httpHeaders, payload);
+        } catch (RuntimeException e) {
+            circuit.release(permit, System.nanoTime() - start, null, e);
+            throw e;
+        }
+
+        return future.whenComplete((result, error) ->
+                circuit.release(permit, System.nanoTime() - start, result, HttpResultProviders.unwrap(error)));
+    }
+
+    public State getState(String host) {
+        final Circuit circuit = circuits.get(host);
+        return circuit != null ? circuit.state.get().kind : State.CLOSED;
+    }
+
+    private Circuit circuitFor(String url) {
+        final String host = Urls.host(url);
+        final String key = host != null ? host : "";
+
+        final Circuit circuit = circuits.get(key);
+        return circuit != null ? circuit : circuits.computeIfAbsent(key, k -> new Circuit());
+    }
+
+    private boolean isFailure(long durationNanos, Result result, Throwable error) {
+        if (error != null) {
+            return true;
+        }
+
+        return durationNanos >= slowCallNanos || (result != null && result.rawStatusCode >= 500);
+    }
+
+    // the permit remembers the state it was granted in, so a late call from an old closed period
+    // does not count against a new one
+    private static final class Permit {
+        private final CircuitState state;
+
+        private Permit(CircuitState state) {
+            this.state = state;
+        }
+    }
+
+    private final class Circuit {
+        private final AtomicReference<CircuitState> state = new AtomicReference<>(CircuitState.closed(windowSize, failureRateThreshold));
+
+        // null: the circuit is open
+        private Permit acquire() {
+            while (true) {
+                final CircuitState current = state.get();
+                switch (current.kind) {
+                    case CLOSED:
+                        return new Permit(current);
+
+                    case OPEN:
+                        if (System.nanoTime() - current.openedAtNanos < openNanos) {
+                            return null;
+                        }
+
+                        // whoever moves the circuit to half-open sends the single probe
+                        final CircuitState halfOpen = CircuitState.halfOpen();
+                        if (state.compareAndSet(current, halfOpen)) {
+                            return new Permit(halfOpen);
+                        }
+                        break;
+
+                    default:
+                        return null;
+                }
+            }
+        }
+
+        private void release(Permit permit, long durationNanos, Result result, Throwable error) {
+            // a local rejection or the caller's own deadline says nothing about the upstream
+            if (error instanceof ConcurrencyLimitExceededException || Deadline.isExceeded(result)) {
+                if (permit.state.kind == State.HALF_OPEN) {
+                    state.compareAndSet(permit.state, CircuitState.open(System.nanoTime() - openNanos));
+                }
+                return;
+            }
+
+            final boolean failure = isFailure(durationNanos, result, error);
+            final CircuitState granted = permit.state;
+
+            if (granted.kind == State.HALF_OPEN) {
+                state.compareAndSet(granted, failure ? CircuitState.open(System.nanoTime()) : CircuitState.closed(windowSize, failureRateThreshold));
+                return;
+            }
+
+            if (granted.window.record(failure) && state.get() == granted) {
+                state.compareAndSet(granted, CircuitState.open(System.nanoTime()));
+            }
+        }
+    }
+
+    private static final class CircuitState {
+        private final State kind;
+        private final long openedAtNanos;
+        private final Window window;
+
+        private CircuitState(State kind, long openedAtNanos, Window window) {
+            this.kind = kind;
+            this.openedAtNanos = openedAtNanos;
+            this.window = window;
+        }
+
+        private static CircuitState closed(int windowSize, int failureRateThreshold) {
+            return new CircuitState(State.CLOSED, 0, new Window(windowSize, failureRateThreshold));
+        }
+
+        private static CircuitState open(long openedAtNanos) {
+            return new CircuitState(State.OPEN, openedAtNanos, null);
+        }
+
+        private static CircuitState halfOpen() {
+            return new CircuitState(State.HALF_OPEN, 0, null);
+        }
+    }
+
+    // ring buffer of the last windowSize outcomes; counters are updated with the slot they replace
+    private static final class Window {
+        private static final int EMPTY = 0;
+        private static final int SUCCESS = 1;
+        private static final int FAILURE = 2;
+
+        private final AtomicIntegerArray outcomes;
+        private final int failureRateThreshold;
+        private final AtomicLong cursor;
+        private final AtomicInteger recorded;
+        private final AtomicInteger failures;
+
+        private Window(int size, int failureRateThreshold) {
+            this.outcomes = new AtomicIntegerArray(size);
+            this.failureRateThreshold = failureRateThreshold;
+            this.cursor = new AtomicLong();
+            this.recorded = new AtomicInteger();
+            this.failures = new AtomicInteger();
+        }
+
+        // true when the failure rate crossed the threshold
+        private boolean record(boolean failure) {
+            final int slot = (int) (cursor.getAndIncrement() % outcomes.length());
+            final int previous = outcomes.getAndSet(slot, failure ? FAILURE : SUCCESS);
+
+            if (previous == EMPTY) {
+                recorded.incrementAndGet();
+            } else if (previous == FAILURE) {
+                failures.decrementAndGet();
+            }
+
+            final int failed = failure ? failures.incrementAndGet() : failures.get();
+            return recorded.get() >= outcomes.length() && failed * 100 >= failureRateThreshold * outcomes.length();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Single-flight: concurrent identical GET/HEAD calls share one in-flight delegate call.
+// Calls are identical when method, url and the values of keyHeaderNames match. Conditional and
+// Range requests get answers meant only for them (304, 206), so they always go to the delegate.
+// A waiter is held only until its own deadline; then it gets Deadline.exceededResult().
+public final class CoalescingHttpResultProvider implements HttpResultProvider, AsyncHttpResultProvider, DelegatingHttpResultProvider {
+    private final HttpResultProvider delegate;
+    private final List<String> keyHeaderNames;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentMap<Key, CompletableFuture<Result>> inFlight;
+    private final LongAdder coalesced;
+
+    public CoalescingHttpResultProvider(HttpResultProvider delegate, Collection<String> keyHeaderNames) {
+        this(delegate, keyHeaderNames, SharedScheduler.INSTANCE);
+    }
+
+    // scheduler ends waits at the waiters' deadlines
+    public CoalescingHttpResultProvider(HttpResultProvider delegate, Collection<String> keyHeaderNames, ScheduledExecutorService scheduler) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate");
+        }
+
+        if (keyHeaderNames == null) {
+            throw new IllegalArgumentException("keyHeaderNames");
+        }
+
+        if (scheduler == null) {
+            throw new IllegalArgumentException("scheduler");
+        }
+
+        this.delegate = delegate;
+        this.keyHeaderNames = new ArrayList<>(keyHeaderNames);
+        this.scheduler = scheduler;
+        this.inFlight = new ConcurrentHashMap<>();
+        this.coalesced = new LongAdder();
+    }
+
+    @Override
+    public Object getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        return HttpResultProviders.join(callAsync(httpMethod, url, httpHeaders, payload));
+    }
+
+    @Override
+    public CompletableFuture<Result> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        if (!isCoalescable(httpMethod, httpHeaders, payload)) {
+            return HttpResultProviders.callAsync(delegate, httpMethod, url, httpHeaders, payload);
+        }
+
+        final Key key = new Key(httpMethod, url, keyHeaderValues(httpHeaders));
+        final CompletableFuture<Result> shared = new CompletableFuture<>();
+
+        final CompletableFuture<Result> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            coalesced.increment();
+
+            // the leader's deadline is not the waiter's: a waiter with time left calls on its own
+            final Deadline deadline = Deadline.current();
+            final CompletableFuture<Result> waiter = existing.thenCompose(result -> Deadline.isExceeded(result)
+                    ? reissue(httpMethod, url, httpHeaders, deadline)
+                    : CompletableFuture.completedFuture(result));
+
+            return deadline != null ? bound(waiter, deadline) : waiter;
+        }
+
+        CompletableFuture<Result> call;
+        try {
+            call = HttpResultProviders.callAsync(delegate, httpMethod, url, httpHeaders, payload);
+        } catch (RuntimeException e) {
+            call = new CompletableFuture<>();
+            call.completeExceptionally(e);
+        }
+
+        call.whenComplete((result, error) -> {
+            // leave the map first, so late callers start a fresh request instead of joining a finished one
+            inFlight.remove(key, shared);
+
+            if (error != null) {
+                shared.completeExceptionally(error);
+            } else {
+                shared.complete(result);
+            }
+        });
+
+        // waiters get their own stage: cancelling one must not cancel the shared call
+        return shared.thenApply(Function.identity());
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    // completing the waiter's own stage leaves the shared call running for the others
+    private CompletableFuture<Result> bound(CompletableFuture<Result> waiter, Deadline deadline) {
+        if (waiter.isDone()) {
+            return waiter;
+        }
+
+        if (deadline.isExpired()) {
+            waiter.complete(Deadline.exceededResult());
+            return waiter;
+        }
+
+        final ScheduledFuture<?> timer = scheduler.schedule(() -> waiter.complete(Deadline.exceededResult()),
+                deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        waiter.whenComplete((result, error) -> timer.cancel(false));
+
+        return waiter;
+    }
+
+    private CompletableFuture<Result> reissue(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Deadline deadline) {
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFuture.completedFuture(Deadline.exceededResult());
+        }
+
+        try (Deadline.Scope scope = deadline != null ? deadline.enter() : null) {
+            return HttpResultProviders.callAsync(delegate, httpMethod, url, httpHeaders, null);
+        }
+    }
+
+    private static boolean isCoalescable(HttpMethod httpMethod, HttpHeaders httpHeaders, Object payload) {
+        if (payload != null || (httpMethod != HttpMethod.GET && httpMethod != HttpMethod.HEAD)) {
+            return false;
+        }
+
+        return httpHeaders == null
+                || !(httpHeaders.containsKey(HttpHeaders.IF_NONE_MATCH)
+                || httpHeaders.containsKey(HttpHeaders.IF_MODIFIED_SINCE)
+                || httpHeaders.containsKey(HttpHeaders.RANGE));
+    }
+
+    private List<List<String>> keyHeaderValues(HttpHeaders httpHeaders) {
+        final List<List<String>> values = new ArrayList<>(keyHeaderNames.size());
+        for (String keyHeaderName : keyHeaderNames) {
+            values.add(httpHeaders != null ? httpHeaders.get(keyHeaderName) : null);
+        }
+
+        return values;
+    }
+
+    // created on first use by the two-argument constructor only
+    private static final class SharedScheduler {
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "docking-point-coalescing-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class Key {
+        private final HttpMethod httpMethod;
+        private final String url;
+        private final List<List<String>> headerValues;
+        private final int hashCode;
+
+        private Key(HttpMethod httpMethod, String url, List<List<String>> headerValues) {
+            this.httpMethod = httpMethod;
+            this.url = url;
+            this.headerValues = headerValues;
+            this.hashCode = Objects.hash(httpMethod, url, headerValues);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+            return httpMethod == key.httpMethod
+                    && Objects.equals(url, key.url)
+                    && headerValues.equals(key.headerValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.erliotto.http.integration.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.util.MultiValueMap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Advertises Accept-Encoding and gzips payloads of at least requestMinSize bytes (< 0: never).
+// Buffered results keep the compressed body: DockingPoint inflates it straight into the parser and
+// Result.bodyAsString/bodyAsStream decode it. Streaming results are decoded as they are read.
+// Sits right above the transport; transports must leave the body as received. Only bodies whose bytes
+// are known here are gzipped: byte[], String, SerializedPayload and objects sent as JSON; anything else
+// (xml, forms) is left to the transport's message converters.
+public final class CompressingHttpResultProvider implements HttpResultProvider, AsyncHttpResultProvider, StreamingHttpResultProvider, DelegatingHttpResultProvider {
+    private final HttpResultProvider delegate;
+    private final ObjectMapper objectMapper;
+    private final String acceptEncoding;
+    private final int requestMinSize;
+
+    public CompressingHttpResultProvider(HttpResultProvider delegate, ObjectMapper objectMapper, List<String> acceptEncodings, int requestMinSize) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate");
+        }
+
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("objectMapper");
+        }
+
+        if (acceptEncodings == null) {
+            throw new IllegalArgumentException("acceptEncodings");
+        }
+
+        this.delegate = delegate;
+        this.objectMapper = objectMapper;
+        this.acceptEncoding = ContentEncoding.acceptEncoding(acceptEncodings);
+        this.requestMinSize = requestMinSize;
+    }
+
+    @Override
+    public Object getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final byte[] compressed = compress(httpHeaders, payload);
+        return delegate.call(httpMethod, url, requestHeaders(httpHeaders, payload, compressed), compressed != null ? compressed : payload);
+    }
+
+    @Override
+    public CompletableFuture<Result> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final byte[] compressed = compress(httpHeaders, payload);
+        return HttpResultProviders.callAsync(delegate, httpMethod, url, requestHeaders(httpHeaders, payload, compressed),
+                compressed != null ? compressed : payload);
+    }
+
+    @Override
+    public StreamingResult callStreaming(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) throws IOException {
+        final StreamingHttpResultProvider streamingProvider = HttpResultProviders.find(delegate, StreamingHttpResultProvider.class);
+        if (streamingProvider == null) {
+            throw new IllegalStateException(String.format("streaming is not supported: %s", delegate.getClass().getName()));
+        }
+
+        final byte[] compressed = compress(httpHeaders, payload);
+        final StreamingResult streamingResult = streamingProvider.callStreaming(httpMethod, url,
+                requestHeaders(httpHeaders, payload, compressed), compressed != null ? compressed : payload);
+        if (!ContentEncoding.isEncoded(streamingResult.headers)) {
+            return streamingResult;
+        }
+
+        try {
+            final InputStream body = ContentEncoding.decode(streamingResult.headers, streamingResult.body);
+
+            final HttpHeaders headers = new HttpHeaders();
+            headers.putAll(streamingResult.headers);
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+
+            return new StreamingResult(streamingResult.rawStatusCode, headers, body, streamingResult);
+        } catch (IOException | RuntimeException e) {
+            streamingResult.close();
+            throw e;
+        }
+    }
+
+    // the gzipped payload, or null when it is sent as is
+    private byte[] compress(HttpHeaders httpHeaders, Object payload) {
+        if (payload == null || requestMinSize < 0
+                || (httpHeaders != null && httpHeaders.containsKey(HttpHeaders.CONTENT_ENCODING))) {
+            return null;
+        }
+
+        if (payload instanceof SerializedPayload) {
+            // gzipped once however many calls send it
+            final SerializedPayload serialized = (SerializedPayload) payload;
+            return serialized.getBytes().length >= requestMinSize
+                    ? serialized.gzipped()
+                    : null;
+        }
+
+        final byte[] body = toBytes(httpHeaders != null ? httpHeaders.getContentType() : null, payload);
+        return body != null && body.length >= requestMinSize
+                ? ContentEncoding.gzip(body)
+                : null;
+    }
+
+    // a copy of the caller's headers whenever something is added; a caller's own Accept-Encoding wins
+    private HttpHeaders requestHeaders(HttpHeaders httpHeaders, Object payload, byte[] compressed) {
+        final boolean addAcceptEncoding = !acceptEncoding.isEmpty()
+                && (httpHeaders == null || !httpHeaders.containsKey(HttpHeaders.ACCEPT_ENCODING));
+        if (!addAcceptEncoding && compressed == null) {
+            return httpHeaders;
+        }
+
+        final HttpHeaders requestHeaders = new HttpHeaders();
+        if (httpHeaders != null) {
+            requestHeaders.putAll(httpHeaders);
+        }
+
+        if (addAcceptEncoding) {
+            requestHeaders.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+
+        if (compressed != null) {
+            final MediaType contentType = requestHeaders.getContentType();
+            if (contentType == null) {
+                requestHeaders.setContentType(payload instanceof SerializedPayload
+                        ? ((SerializedPayload) payload).getContentType()
+                        : payload instanceof byte[]
+                        ? MediaType.APPLICATION_OCTET_STREAM
+                        : payload instanceof String ? new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8) : MediaType.APPLICATION_JSON);
+            } else if (payload instanceof String && contentType.getCharset() == null) {
+                // the string went out as UTF-8, which receivers must not take for their text default
+                requestHeaders.setContentType(new MediaType(contentType, StandardCharsets.UTF_8));
+            }
+
+            requestHeaders.set(HttpHeaders.CONTENT_ENCODING, ContentEncoding.GZIP);
+            requestHeaders.remove(HttpHeaders.CONTENT_LENGTH);
+        }
+
+        return requestHeaders;
+    }
+
+    // the body as the transport would write it, or null when only its message converters know that
+    private byte[] toBytes(MediaType contentType, Object payload) {
+        if (payload instanceof byte[]) {
+            return (byte[]) payload;
+        }
+
+        if (payload instanceof String) {
+            final Charset charset = contentType != null ? contentType.getCharset() : null;
+            return ((String) payload).getBytes(charset != null ? charset : StandardCharsets.UTF_8);
+        }
+
+        if (payload instanceof MultiValueMap || !isJson(contentType)) {
+            return null;
+        }
+
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isJson(MediaType contentType) {
+        return contentType == null
+                || MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                || contentType.getSubtype().endsWith("+json");
+    }
+}
@@ -0,0 +1,20 @@
+package com.erliotto.http.integration.core;
+
+public final class ConcurrencyLimitExceededException extends RuntimeException {
+    private final String host;
+    private final int limit;
+
+    public ConcurrencyLimitExceededException(String host, int limit) {
+        super(String.format("concurrency limit exceeded: %s (%d)", host, limit), null, false, false);
+        this.host = host;
+        this.limit = limit;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
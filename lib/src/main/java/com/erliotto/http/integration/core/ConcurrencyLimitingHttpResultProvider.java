@@ -0,0 +1,206 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Caps in-flight calls per host and adapts each cap to the observed round-trip time (gradient):
+// the limit shrinks as latency rises above its long-term average and grows while latency holds.
+// Errors, 429 and 503 back the limit off multiplicatively. Calls above the limit fail fast
+// with ConcurrencyLimitExceededException instead of queueing on the host.
+public final class ConcurrencyLimitingHttpResultProvider implements HttpResultProvider, AsyncHttpResultProvider, DelegatingHttpResultProvider {
+    private final HttpResultProvider delegate;
+    private final DockingPointMetrics metrics;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final ConcurrentMap<String, Limit> limits;
+
+    public ConcurrencyLimitingHttpResultProvider(HttpResultProvider delegate,
+                                                 DockingPointMetrics metrics,
+                                                 int initialLimit,
+                                                 int minLimit,
+                                                 int maxLimit) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate");
+        }
+
+        if (metrics == null) {
+            throw new IllegalArgumentException("metrics");
+        }
+
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format("invalid limits: %d <= %d <= %d", minLimit, initialLimit, maxLimit));
+        }
+
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limits = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Object getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final Limit limit = limitFor(url);
+        final int inFlight = limit.acquire();
+
+        final long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            final Result result = delegate.call(httpMethod, url, httpHeaders, payload);
+            dropped = isDropped(result);
+            return result;
+        } finally {
+            limit.release(System.nanoTime() - start, inFlight, dropped);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Result> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final Limit limit = limitFor(url);
+        final int inFlight;
+        try {
+            inFlight = limit.acquire();
+        } catch (ConcurrencyLimitExceededException e) {
+            final CompletableFuture<Result> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+
+        final long start = System.nanoTime();
+        final CompletableFuture<Result> future;
+        try {
+            future = HttpResultProviders.callAsync(delegate, httpMethod, url, httpHeaders, payload);
+        } catch (RuntimeException e) {
+            limit.release(System.nanoTime() - start, inFlight, true);
+            throw e;
+        }
+
+        return future.whenComplete((result, error) ->
+                limit.release(System.nanoTime() - start, inFlight, error != null || isDropped(result)));
+    }
+
+    public int getLimit(String host) {
+        final Limit limit = limits.get(host);
+        return limit != null ? limit.value : initialLimit;
+    }
+
+    public int getInFlight(String host) {
+        final Limit limit = limits.get(host);
+        return limit != null ? limit.inFlight.get() : 0;
+    }
+
+    private Limit limitFor(String url) {
+        final String host = hostKey(url);
+        final Limit limit = limits.get(host);
+        if (limit != null) {
+            return limit;
+        }
+
+        return limits.computeIfAbsent(host, key -> {
+            final Limit created = new Limit(key);
+            metrics.bindConcurrencyLimit(key, () -> created.value, created.inFlight::get);
+            return created;
+        });
+    }
+
+    private static String hostKey(String url) {
+        final String host = Urls.host(url);
+        return host != null ? host : "";
+    }
+
+    // the upstream is shedding load or too slow for the deadline
+    private static boolean isDropped(Result result) {
+        return result != null && (result.rawStatusCode == 429 || result.rawStatusCode == 503 || Deadline.isExceeded(result));
+    }
+
+    private final class Limit {
+        // long-term rtt is an average over about this many samples
+        private static final int LONG_WINDOW = 100;
+        // rtt may exceed the long-term average by this factor before the limit shrinks
+        private static final double TOLERANCE = 1.5;
+        private static final double SMOOTHING = 0.2;
+        private static final double BACKOFF_RATIO = 0.9;
+
+        private final String host;
+        private final AtomicInteger inFlight;
+
+        // guarded by this
+        private double estimatedLimit;
+        private double longRttNanos;
+
+        private volatile int value;
+
+        private Limit(String host) {
+            this.host = host;
+            this.inFlight = new AtomicInteger();
+            this.estimatedLimit = initialLimit;
+            this.value = initialLimit;
+        }
+
+        // returns the in-flight count including this call
+        private int acquire() {
+            while (true) {
+                final int current = inFlight.get();
+                final int limit = value;
+                if (current >= limit) {
+                    metrics.recordConcurrencyLimitRejected(host);
+                    throw new ConcurrencyLimitExceededException(host, limit);
+                }
+
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return current + 1;
+                }
+            }
+        }
+
+        private void release(long rttNanos, int inFlightAtStart, boolean dropped) {
+            inFlight.decrementAndGet();
+            update(rttNanos, inFlightAtStart, dropped);
+        }
+
+        private synchronized void update(long rttNanos, int inFlightAtStart, boolean dropped) {
+            if (dropped) {
+                setEstimatedLimit(estimatedLimit * BACKOFF_RATIO);
+                return;
+            }
+
+            if (longRttNanos == 0) {
+                longRttNanos = rttNanos;
+            } else {
+                longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+            }
+
+            // latency dropped well below the average (upstream recovered): let the average catch up quickly
+            if (longRttNanos > 2.0 * rttNanos) {
+                longRttNanos *= 0.95;
+            }
+
+            final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+            final double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+
+            // a caller that does not use half of the limit says nothing about whether the host could take more
+            if (newLimit > estimatedLimit && inFlightAtStart * 2 < estimatedLimit) {
+                return;
+            }
+
+            setEstimatedLimit(estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+        }
+
+        private void setEstimatedLimit(double limit) {
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, limit));
+            value = (int) estimatedLimit;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+public final class ContentEncoding {
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+    public static final String BROTLI = "br";
+
+    private static final String IDENTITY = "identity";
+    private static final String X_GZIP = "x-gzip";
+    private static final String BROTLI_INPUT_STREAM = "org.brotli.dec.BrotliInputStream";
+
+    // org.brotli:dec is optional
+    private static final Constructor<?> BROTLI_DECODER = brotliConstructor();
+
+    private ContentEncoding() {
+    }
+
+    public static boolean isSupported(String encoding) {
+        switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+            case GZIP:
+            case X_GZIP:
+            case DEFLATE:
+            case IDENTITY:
+                return true;
+            case BROTLI:
+                return BROTLI_DECODER != null;
+            default:
+                return false;
+        }
+    }
+
+    // Accept-Encoding value of the supported encodings, in the given order of preference
+    public static String acceptEncoding(List<String> encodings) {
+        final List<String> supported = new ArrayList<>();
+        for (String encoding : encodings) {
+            if (isSupported(encoding)) {
+                supported.add(encoding.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        return StringUtils.collectionToDelimitedString(supported, ", ");
+    }
+
+    public static boolean isEncoded(HttpHeaders headers) {
+        return !encodings(headers).isEmpty();
+    }
+
+    // the decoded body, inflated as it is read; encodings are undone in reverse order of application
+    public static InputStream decode(HttpHeaders headers, InputStream body) throws IOException {
+        final List<String> encodings = encodings(headers);
+
+        InputStream decoded = body;
+        for (int i = encodings.size() - 1; i >= 0; i--) {
+            decoded = decode(encodings.get(i), decoded);
+        }
+
+        return decoded;
+    }
+
+    public static byte[] gzip(byte[] body) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            // in-memory streams never fail with plain I/O
+            throw new IllegalStateException(e);
+        }
+
+        return buffer.toByteArray();
+    }
+
+    private static InputStream decode(String encoding, InputStream body) throws IOException {
+        switch (encoding) {
+            case GZIP:
+            case X_GZIP:
+                return new GZIPInputStream(body);
+            case DEFLATE:
+                return inflate(body);
+            case BROTLI:
+                if (BROTLI_DECODER != null) {
+                    return brotli(body);
+                }
+                // falls through without org.brotli:dec
+            default:
+                throw new IOException(String.format("unsupported content encoding: %s", encoding));
+        }
+    }
+
+    // "deflate" is zlib-wrapped per RFC 7230, but some servers send a raw deflate stream
+    private static InputStream inflate(InputStream body) throws IOException {
+        final InputStream buffered = body.markSupported() ? body : new BufferedInputStream(body);
+
+        buffered.mark(2);
+        final int cmf = buffered.read();
+        final int flg = buffered.read();
+        buffered.reset();
+
+        final boolean zlib = cmf >= 0 && flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        return new InflaterInputStream(buffered, new Inflater(!zlib));
+    }
+
+    private static InputStream brotli(InputStream body) throws IOException {
+        try {
+            return (InputStream) BROTLI_DECODER.newInstance(body);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> encodings(HttpHeaders headers) {
+        final List<String> values = headers.get(HttpHeaders.CONTENT_ENCODING);
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<String> encodings = new ArrayList<>();
+        for (String value : values) {
+            for (String encoding : StringUtils.commaDelimitedListToStringArray(value)) {
+                final String normalized = encoding.trim().toLowerCase(Locale.ROOT);
+                if (!normalized.isEmpty() && !IDENTITY.equals(normalized)) {
+                    encodings.add(normalized);
+                }
+            }
+        }
+
+        return encodings;
+    }
+
+    private static Constructor<?> brotliConstructor() {
+        if (!ClassUtils.isPresent(BROTLI_INPUT_STREAM, ContentEncoding.class.getClassLoader())) {
+            return null;
+        }
+
+        try {
+            return ClassUtils.forName(BROTLI_INPUT_STREAM, ContentEncoding.class.getClassLoader())
+                    .getConstructor(InputStream.class);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+// Time budget of a call: a total deadline plus optional connect and response limits.
+// The current deadline is thread bound: enter() makes it current for the calls made inside the scope,
+// a nested scope keeps the earlier of both deadlines. Providers read it with current() and turn an
+// expiry into exceededResult(): a 504 marked with EXCEEDED_HEADER that DockingPoint dispatches as usual,
+// building a class registered for 504 from an empty JSON object since there is no body to decode.
+public final class Deadline {
+    public static final int EXCEEDED_STATUS_CODE = 504;
+    public static final String EXCEEDED_HEADER = "X-Deadline-Exceeded";
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    private static final HttpResultProvider.Result EXCEEDED_RESULT = createExceededResult();
+
+    private final long expiresAtNanos;
+    private final Duration connectTimeout;
+    private final Duration responseTimeout;
+
+    private Deadline(long expiresAtNanos, Duration connectTimeout, Duration responseTimeout) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.connectTimeout = connectTimeout;
+        this.responseTimeout = responseTimeout;
+    }
+
+    public static Deadline after(Duration total) {
+        requirePositive(total, "total");
+        return new Deadline(System.nanoTime() + total.toNanos(), null, null);
+    }
+
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static HttpResultProvider.Result exceededResult() {
+        return EXCEEDED_RESULT;
+    }
+
+    public static boolean isExceeded(HttpResultProvider.Result result) {
+        return result != null
+                && result.rawStatusCode == EXCEEDED_STATUS_CODE
+                && result.headers.containsKey(EXCEEDED_HEADER);
+    }
+
+    // time to establish the connection
+    public Deadline withConnectTimeout(Duration connectTimeout) {
+        requirePositive(connectTimeout, "connectTimeout");
+        return new Deadline(expiresAtNanos, connectTimeout, responseTimeout);
+    }
+
+    // time from sending the request to the response headers (per read for blocking sockets)
+    public Deadline withResponseTimeout(Duration responseTimeout) {
+        requirePositive(responseTimeout, "responseTimeout");
+        return new Deadline(expiresAtNanos, connectTimeout, responseTimeout);
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    // the connect and response limits never outlast the total deadline
+    public Duration connectTimeout() {
+        return min(connectTimeout, remaining());
+    }
+
+    public Duration responseTimeout() {
+        return min(responseTimeout, remaining());
+    }
+
+    public Scope enter() {
+        final Deadline previous = CURRENT.get();
+        CURRENT.set(previous != null ? narrow(previous) : this);
+        return new Scope(previous);
+    }
+
+    private Deadline narrow(Deadline outer) {
+        final long expiresAt = expiresAtNanos - outer.expiresAtNanos < 0 ? expiresAtNanos : outer.expiresAtNanos;
+        return new Deadline(expiresAt, min(connectTimeout, outer.connectTimeout), min(responseTimeout, outer.responseTimeout));
+    }
+
+    private static Duration min(Duration left, Duration right) {
+        if (left == null) {
+            return right;
+        }
+
+        if (right == null) {
+            return left;
+        }
+
+        return left.compareTo(right) <= 0 ? left : right;
+    }
+
+    private static void requirePositive(Duration duration, String name) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException(name);
+        }
+    }
+
+    private static HttpResultProvider.Result createExceededResult() {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(EXCEEDED_HEADER, "true");
+        return new HttpResultProvider.Result(EXCEEDED_STATUS_CODE, headers, new byte[0]);
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Deadline previous;
+
+        private Scope(Deadline previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+
+// RestTemplate request factory honoring the current Deadline: connect and read timeouts of each
+// connection are cut down to the deadline. A read timeout applies per socket read, so a body
+// trickling in may still overrun the total deadline by up to one read timeout.
+public final class DeadlineClientHttpRequestFactory extends SimpleClientHttpRequestFactory {
+    private int connectTimeout = -1;
+    private int readTimeout = -1;
+
+    @Override
+    public void setConnectTimeout(int connectTimeout) {
+        super.setConnectTimeout(connectTimeout);
+        this.connectTimeout = connectTimeout;
+    }
+
+    @Override
+    public void setReadTimeout(int readTimeout) {
+        super.setReadTimeout(readTimeout);
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+        super.prepareConnection(connection, httpMethod);
+
+        final Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return;
+        }
+
+        connection.setConnectTimeout(min(connectTimeout, deadline.connectTimeout()));
+        connection.setReadTimeout(min(readTimeout, deadline.responseTimeout()));
+    }
+
+    // 0 means infinite for HttpURLConnection, so an exhausted budget becomes 1ms
+    private static int min(int configuredMillis, Duration limit) {
+        final int limitMillis = (int) Math.max(1, Math.min(Integer.MAX_VALUE, limit.toMillis()));
+        return configuredMillis > 0 ? Math.min(configuredMillis, limitMillis) : limitMillis;
+    }
+}
@@ -7,10 +7,14 @@ public abstract class DefaultHttpStatusHolder implements HttpStatusHolder {
     @JsonIgnore
     private HttpStatus responseStatus;
 
+    @JsonIgnore
+    private int rawStatusCode;
+
     @JsonIgnore
     @Override
     public void setHttpStatus(HttpStatus httpStatus) {
         this.responseStatus = httpStatus;
+        this.rawStatusCode = httpStatus != null ? httpStatus.value() : 0;
     }
 
     @JsonIgnore
@@ -19,8 +23,21 @@ public abstract class DefaultHttpStatusHolder implements HttpStatusHolder {
         return responseStatus;
     }
 
+    @JsonIgnore
+    @Override
+    public void setRawStatusCode(int rawStatusCode) {
+        this.responseStatus = HttpStatus.resolve(rawStatusCode);
+        this.rawStatusCode = rawStatusCode;
+    }
+
+    @JsonIgnore
+    @Override
+    public int getRawStatusCode() {
+        return rawStatusCode;
+    }
+
     @JsonIgnore
     public boolean isSuccess() {
-        return responseStatus.is2xxSuccessful();
+        return HttpStatus.Series.resolve(rawStatusCode) == HttpStatus.Series.SUCCESSFUL;
     }
 }
@@ -0,0 +1,6 @@
+package com.erliotto.http.integration.core;
+
+// decorators expose what they wrap, so capabilities of the transport (streaming) can be found through them
+interface DelegatingHttpResultProvider {
+    Object getDelegate();
+}
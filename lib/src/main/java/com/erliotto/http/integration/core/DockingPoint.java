@@ -1,49 +1,209 @@
 package com.erliotto.http.integration.core;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Component
 public final class DockingPoint<TResponse extends HttpStatusHolder> {
     private final HttpResultProvider httpResultProvider;
+    // decorators are async even over a blocking transport, so the end of the chain decides
+    private final boolean nonBlockingProvider;
     private final ObjectMapper objectMapper;
-    private final Map<HttpStatus, Value> responseDescriptors;
+    private final ResponseDecoder responseDecoder;
+    private final DockingPointMetrics metrics;
+    private final Map<Integer, Value> responseDescriptors;
+    private final List<RangeValue> rangeDescriptors;
+    private final Map<HttpStatus.Series, Value> seriesDescriptors;
+    private final List<Format> formats;
 
     private Value defaultValue;
 
+    // written once under the lock, read without it
+    private volatile DispatchTable dispatchTable;
+
     public DockingPoint(HttpResultProvider httpResultProvider, ObjectMapper objectMapper) {
+        this(httpResultProvider, objectMapper, DockingPointMetrics.NOOP);
+    }
+
+    public DockingPoint(HttpResultProvider httpResultProvider, ObjectMapper objectMapper, DockingPointMetrics metrics) {
+        this(httpResultProvider, objectMapper, metrics, new JacksonResponseDecoder(objectMapper));
+    }
+
+    // responseDecoder reads every registered class without its own decoder; objectMapper stays
+    // in use for callStream/callFlux
+    @Autowired
+    public DockingPoint(HttpResultProvider httpResultProvider,
+                        ObjectMapper objectMapper,
+                        DockingPointMetrics metrics,
+                        ResponseDecoder responseDecoder) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("metrics");
+        }
+
+        if (responseDecoder == null) {
+            throw new IllegalArgumentException("responseDecoder");
+        }
+
         this.httpResultProvider = httpResultProvider;
+        this.nonBlockingProvider = HttpResultProviders.isNonBlocking(httpResultProvider);
         this.objectMapper = objectMapper;
+        this.responseDecoder = responseDecoder;
+        this.metrics = metrics;
         this.responseDescriptors = new HashMap<>();
+        this.rangeDescriptors = new ArrayList<>();
+        this.seriesDescriptors = new EnumMap<>(HttpStatus.Series.class);
+        this.formats = new ArrayList<>();
     }
 
     public DockingPoint<TResponse> register(HttpStatus httpStatus, Class<? extends TResponse> responseClass) {
+        return register(toStatusCode(httpStatus), responseClass);
+    }
+
+    public <TRawResponse> DockingPoint<TResponse> register(HttpStatus httpStatus,
+                                                           Class<TRawResponse> rawResponseClass,
+                                                           Function<TRawResponse, TResponse> responseMapper) {
+        return register(toStatusCode(httpStatus), rawResponseClass, responseMapper);
+    }
+
+    public synchronized DockingPoint<TResponse> register(int statusCode, Class<? extends TResponse> responseClass) {
+        checkNotFrozen();
         check(responseClass);
-        checkHttpStatus(httpStatus);
+        checkStatusCode(statusCode);
 
-        this.responseDescriptors.put(httpStatus, createValue(responseClass));
+        this.responseDescriptors.put(statusCode, createValue(responseClass));
         return this;
     }
 
+    public synchronized <TRawResponse> DockingPoint<TResponse> register(int statusCode,
+                                                                        Class<TRawResponse> rawResponseClass,
+                                                                        Function<TRawResponse, TResponse> responseMapper) {
+        checkNotFrozen();
+        check(rawResponseClass, responseMapper);
+        checkStatusCode(statusCode);
+
+        this.responseDescriptors.put(statusCode, createValue(rawResponseClass, responseMapper));
+        return this;
+    }
+
+    public DockingPoint<TResponse> register(HttpStatus httpStatus, Class<? extends TResponse> responseClass, ResponseDecoder responseDecoder) {
+        return register(toStatusCode(httpStatus), responseClass, responseDecoder);
+    }
+
     public <TRawResponse> DockingPoint<TResponse> register(HttpStatus httpStatus,
                                                            Class<TRawResponse> rawResponseClass,
-                                                           Function<TRawResponse, TResponse> responseMapper) {
+                                                           Function<TRawResponse, TResponse> responseMapper,
+                                                           ResponseDecoder responseDecoder) {
+        return register(toStatusCode(httpStatus), rawResponseClass, responseMapper, responseDecoder);
+    }
+
+    // this registration only: responseDecoder replaces the DockingPoint's decoder
+    public synchronized DockingPoint<TResponse> register(int statusCode, Class<? extends TResponse> responseClass, ResponseDecoder responseDecoder) {
+        checkNotFrozen();
+        check(responseClass);
+        check(responseDecoder);
+        checkStatusCode(statusCode);
+
+        this.responseDescriptors.put(statusCode, new Value(responseClass, createReader(responseDecoder, responseClass)));
+        return this;
+    }
+
+    public synchronized <TRawResponse> DockingPoint<TResponse> register(int statusCode,
+                                                                        Class<TRawResponse> rawResponseClass,
+                                                                        Function<TRawResponse, TResponse> responseMapper,
+                                                                        ResponseDecoder responseDecoder) {
+        checkNotFrozen();
         check(rawResponseClass, responseMapper);
-        checkHttpStatus(httpStatus);
+        check(responseDecoder);
+        checkStatusCode(statusCode);
 
-        this.responseDescriptors.put(httpStatus, createValue(rawResponseClass, responseMapper));
+        this.responseDescriptors.put(statusCode, new Value(rawResponseClass, createReader(responseDecoder, rawResponseClass),
+                x -> responseMapper.apply((TRawResponse) x)));
         return this;
     }
 
-    public DockingPoint<TResponse> registerDefault(Class<? extends TResponse> responseClass) {
+    public synchronized DockingPoint<TResponse> registerRange(int fromStatusCode, int toStatusCode, Class<? extends TResponse> responseClass) {
+        checkNotFrozen();
+        check(responseClass);
+        checkRange(fromStatusCode, toStatusCode);
+
+        this.rangeDescriptors.add(new RangeValue(fromStatusCode, toStatusCode, createValue(responseClass)));
+        return this;
+    }
+
+    public synchronized <TRawResponse> DockingPoint<TResponse> registerRange(int fromStatusCode,
+                                                                             int toStatusCode,
+                                                                             Class<TRawResponse> rawResponseClass,
+                                                                             Function<TRawResponse, TResponse> responseMapper) {
+        checkNotFrozen();
+        check(rawResponseClass, responseMapper);
+        checkRange(fromStatusCode, toStatusCode);
+
+        this.rangeDescriptors.add(new RangeValue(fromStatusCode, toStatusCode, createValue(rawResponseClass, responseMapper)));
+        return this;
+    }
+
+    public synchronized DockingPoint<TResponse> registerSeries(HttpStatus.Series series, Class<? extends TResponse> responseClass) {
+        checkNotFrozen();
+        check(responseClass);
+        checkSeries(series);
+
+        this.seriesDescriptors.put(series, createValue(responseClass));
+        return this;
+    }
+
+    public synchronized <TRawResponse> DockingPoint<TResponse> registerSeries(HttpStatus.Series series,
+                                                                              Class<TRawResponse> rawResponseClass,
+                                                                              Function<TRawResponse, TResponse> responseMapper) {
+        checkNotFrozen();
+        check(rawResponseClass, responseMapper);
+        checkSeries(series);
+
+        this.seriesDescriptors.put(series, createValue(rawResponseClass, responseMapper));
+        return this;
+    }
+
+    public synchronized DockingPoint<TResponse> registerDefault(Class<? extends TResponse> responseClass) {
+        checkNotFrozen();
         check(responseClass);
         checkDefault();
 
@@ -51,8 +211,9 @@ public final class DockingPoint<TResponse extends HttpStatusHolder> {
         return this;
     }
 
-    public <TRawResponse> DockingPoint<TResponse> registerDefault(Class<TRawResponse> rawResponseClass,
-                                                                  Function<TRawResponse, TResponse> responseMapper) {
+    public synchronized <TRawResponse> DockingPoint<TResponse> registerDefault(Class<TRawResponse> rawResponseClass,
+                                                                               Function<TRawResponse, TResponse> responseMapper) {
+        checkNotFrozen();
         check(rawResponseClass, responseMapper);
         checkDefault();
 
@@ -60,13 +221,397 @@ public final class DockingPoint<TResponse extends HttpStatusHolder> {
         return this;
     }
 
+    // Binary body format (BinaryFormats.smile(), cbor(), messagePack() or any Jackson dataformat mapper).
+    // Registered formats are offered in Accept ahead of JSON, in registration order, unless the caller sets
+    // Accept itself; each response is read with the mapper matching its Content-Type, JSON otherwise.
+    public DockingPoint<TResponse> registerFormat(MediaType mediaType, ObjectMapper formatObjectMapper) {
+        if (formatObjectMapper == null) {
+            throw new IllegalArgumentException("formatObjectMapper");
+        }
+
+        return registerFormat(mediaType, new JacksonResponseDecoder(formatObjectMapper));
+    }
+
+    public synchronized DockingPoint<TResponse> registerFormat(MediaType mediaType, ResponseDecoder formatDecoder) {
+        checkNotFrozen();
+        check(formatDecoder);
+
+        if (mediaType == null) {
+            throw new IllegalArgumentException("mediaType");
+        }
+
+        for (Format format : this.formats) {
+            if (format.mediaType.equalsTypeAndSubtype(mediaType)) {
+                throw new IllegalArgumentException(String.format("already have format: %s", mediaType));
+            }
+        }
+
+        this.formats.add(new Format(mediaType, formatDecoder));
+        return this;
+    }
+
+    // serializes a payload once with this DockingPoint's ObjectMapper, to be sent by any number of calls
+    public SerializedPayload serialize(Object payload) throws JsonProcessingException {
+        return SerializedPayload.json(objectMapper, payload);
+    }
+
+    public synchronized DockingPoint<TResponse> freeze() {
+        if (this.dispatchTable == null) {
+            this.dispatchTable = new DispatchTable(this.responseDescriptors, this.rangeDescriptors, this.seriesDescriptors, this.defaultValue, this.formats);
+        }
+
+        return this;
+    }
+
     public TResponse call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) throws JsonProcessingException {
-        final HttpResultProvider.Result httpResult = httpResultProvider.call(httpMethod, url, httpHeaders, payload);
+        final HttpResultProvider.Result httpResult = callResult(httpMethod, url, httpHeaders, payload);
+        if (httpResult == null) {
+            return null;
+        }
+
+        return dispatchResponse(httpMethod, url, httpResult);
+    }
+
+    public TResponse call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload, Deadline deadline) throws JsonProcessingException {
+        try (Deadline.Scope scope = deadline.enter()) {
+            return call(httpMethod, url, httpHeaders, payload);
+        }
+    }
+
+    public CompletableFuture<TResponse> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        return callResultAsync(httpMethod, url, httpHeaders, payload)
+                .thenApply(httpResult -> dispatchAsync(httpMethod, url, httpResult));
+    }
+
+    public CompletableFuture<TResponse> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload, Deadline deadline) {
+        try (Deadline.Scope scope = deadline.enter()) {
+            return callAsync(httpMethod, url, httpHeaders, payload);
+        }
+    }
+
+    // Like call, but the body is parsed on the first LazyResponse.get(): callers that only look at the
+    // status skip deserialization entirely. The unmatched status metric is still recorded here.
+    public LazyResponse<TResponse> callLazy(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final HttpResultProvider.Result httpResult = callResult(httpMethod, url, httpHeaders, payload);
         if (httpResult == null) {
             return null;
         }
 
-        return dispatchResponse(httpResult.httpStatus, httpResult.body);
+        return lazyResponse(httpMethod, url, httpResult);
+    }
+
+    public LazyResponse<TResponse> callLazy(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload, Deadline deadline) {
+        try (Deadline.Scope scope = deadline.enter()) {
+            return callLazy(httpMethod, url, httpHeaders, payload);
+        }
+    }
+
+    public CompletableFuture<LazyResponse<TResponse>> callLazyAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        return callResultAsync(httpMethod, url, httpHeaders, payload)
+                .thenApply(httpResult -> httpResult != null ? lazyResponse(httpMethod, url, httpResult) : null);
+    }
+
+    public CompletableFuture<LazyResponse<TResponse>> callLazyAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload, Deadline deadline) {
+        try (Deadline.Scope scope = deadline.enter()) {
+            return callLazyAsync(httpMethod, url, httpHeaders, payload);
+        }
+    }
+
+    // Elements of a top-level JSON array response, parsed one at a time as the stream is consumed.
+    // The stream holds the connection: close it unless it is consumed to the end. Status handlers are
+    // not involved, a non-2xx status (an expired deadline too) throws RestClientResponseException. The first
+    // streaming provider in the chain serves it (CompressingHttpResultProvider or the transport): the cache,
+    // coalescing, limiter and circuit breaker are bypassed.
+    public <T> Stream<T> callStream(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload, Class<T> elementType) throws IOException {
+        if (isDeadlineExpired()) {
+            throw deadlineExceeded();
+        }
+
+        final StreamingHttpResultProvider streamingProvider = HttpResultProviders.find(httpResultProvider, StreamingHttpResultProvider.class);
+        if (streamingProvider == null) {
+            return flux(requireFluxProvider(), httpMethod, url, httpHeaders, payload, elementType)
+                    .toStream();
+        }
+
+        final StreamingHttpResultProvider.StreamingResult streamingResult = streamingProvider.callStreaming(httpMethod, url,
+                getDispatchTable().withAccept(httpHeaders), payload);
+        try {
+            if (HttpStatus.Series.resolve(streamingResult.rawStatusCode) != HttpStatus.Series.SUCCESSFUL) {
+                throw HttpResultProviders.statusException(streamingResult.rawStatusCode, streamingResult.headers,
+                        StreamUtils.copyToByteArray(streamingResult.body));
+            }
+
+            final ObjectReader objectReader = streamingObjectMapper(streamingResult.headers).readerFor(elementType);
+
+            final MappingIterator<T> iterator = objectReader.readValues(streamingResult.body);
+            final ClosingIterator<T> closingIterator = new ClosingIterator<>(iterator, streamingResult);
+
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(closingIterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(closingIterator::close);
+        } catch (IOException | RuntimeException e) {
+            streamingResult.close();
+            throw e;
+        }
+    }
+
+    // Backpressured variant of callStream: elements are decoded as they are requested.
+    // Blocking transports are read on the bounded elastic scheduler.
+    public <T> Flux<T> callFlux(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload, Class<T> elementType) {
+        final FluxHttpResultProvider fluxProvider = HttpResultProviders.find(httpResultProvider, FluxHttpResultProvider.class);
+        if (fluxProvider != null) {
+            return isDeadlineExpired()
+                    ? Flux.error(deadlineExceeded())
+                    : flux(fluxProvider, httpMethod, url, httpHeaders, payload, elementType);
+        }
+
+        if (HttpResultProviders.find(httpResultProvider, StreamingHttpResultProvider.class) == null) {
+            throw streamingNotSupported();
+        }
+
+        return Flux.<T>fromStream(() -> {
+            try {
+                return callStream(httpMethod, url, httpHeaders, payload, elementType);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public List<BatchResult<TResponse>> callAll(List<BatchCall> calls, int parallelism, Executor executor) {
+        return callAllAsync(calls, parallelism, executor, batchResult -> {
+        }).join();
+    }
+
+    // At most parallelism calls are in flight; resultConsumer sees results one at a time as they
+    // complete, the returned list keeps the order of calls. A failed call never fails the batch.
+    // The executor runs blocking providers and deserialization (off the I/O threads of async providers).
+    // The current deadline applies to every call of the batch.
+    public CompletableFuture<List<BatchResult<TResponse>>> callAllAsync(List<BatchCall> calls,
+                                                                        int parallelism,
+                                                                        Executor executor,
+                                                                        Consumer<BatchResult<TResponse>> resultConsumer) {
+        if (calls == null) {
+            throw new IllegalArgumentException("calls");
+        }
+
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism");
+        }
+
+        if (executor == null) {
+            throw new IllegalArgumentException("executor");
+        }
+
+        if (resultConsumer == null) {
+            throw new IllegalArgumentException("resultConsumer");
+        }
+
+        final Batch batch = new Batch(new ArrayList<>(calls), executor, resultConsumer, Deadline.current());
+        if (batch.calls.isEmpty()) {
+            batch.done.complete(Collections.emptyList());
+            return batch.done;
+        }
+
+        for (int lane = 0; lane < Math.min(parallelism, batch.calls.size()); lane++) {
+            runLane(batch);
+        }
+
+        return batch.done;
+    }
+
+    private TResponse dispatchAsync(HttpMethod httpMethod, String url, HttpResultProvider.Result httpResult) {
+        if (httpResult == null) {
+            return null;
+        }
+
+        try {
+            return dispatchResponse(httpMethod, url, httpResult);
+        } catch (JsonProcessingException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    // a lane starts the next call when its previous one completes; synchronously completed calls loop instead of recursing
+    private void runLane(Batch batch) {
+        while (true) {
+            final int index = batch.next.getAndIncrement();
+            if (index >= batch.calls.size()) {
+                return;
+            }
+
+            final BatchCall call = batch.calls.get(index);
+            final CompletableFuture<TResponse> future = startBatchCall(call, batch.executor, batch.deadline);
+            if (future.isDone()) {
+                completeBatchCall(batch, index, call, future);
+                continue;
+            }
+
+            future.whenComplete((response, error) -> {
+                completeBatchCall(batch, index, call, future);
+                runLane(batch);
+            });
+            return;
+        }
+    }
+
+    // lanes continue on completion threads, so the batch deadline is entered for each call
+    private CompletableFuture<TResponse> startBatchCall(BatchCall call, Executor executor, Deadline deadline) {
+        try {
+            if (nonBlockingProvider) {
+                try (Deadline.Scope scope = enter(deadline)) {
+                    return callResultAsync(call.httpMethod, call.url, call.httpHeaders, call.payload)
+                            .thenApplyAsync(httpResult -> dispatchAsync(call.httpMethod, call.url, httpResult), executor);
+                }
+            }
+
+            return CompletableFuture.supplyAsync(() -> {
+                try (Deadline.Scope scope = enter(deadline)) {
+                    return dispatchAsync(call.httpMethod, call.url, callResult(call.httpMethod, call.url, call.httpHeaders, call.payload));
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            final CompletableFuture<TResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    private void completeBatchCall(Batch batch, int index, BatchCall call, CompletableFuture<TResponse> future) {
+        BatchResult<TResponse> batchResult;
+        try {
+            batchResult = new BatchResult<>(index, call, future.join(), null);
+        } catch (CompletionException | CancellationException e) {
+            batchResult = new BatchResult<>(index, call, null, unwrap(e));
+        }
+
+        batch.results.set(index, batchResult);
+
+        synchronized (batch) {
+            try {
+                batch.resultConsumer.accept(batchResult);
+            } catch (RuntimeException e) {
+                batch.done.completeExceptionally(e);
+            }
+        }
+
+        if (batch.remaining.decrementAndGet() == 0) {
+            final List<BatchResult<TResponse>> results = new ArrayList<>(batch.calls.size());
+            for (int i = 0; i < batch.calls.size(); i++) {
+                results.add(batch.results.get(i));
+            }
+
+            batch.done.complete(results);
+        }
+    }
+
+    // the same Accept and response formats as callStream on a streaming provider
+    private <T> Flux<T> flux(FluxHttpResultProvider fluxProvider, HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload, Class<T> elementType) {
+        return fluxProvider.callFlux(httpMethod, url, getDispatchTable().withAccept(httpHeaders), payload, this::streamingObjectMapper, elementType);
+    }
+
+    // arrays are iterated with Jackson whatever the ResponseDecoder
+    private ObjectMapper streamingObjectMapper(HttpHeaders responseHeaders) {
+        final Format format = getDispatchTable().formatFor(responseHeaders);
+        return format != null ? format.streamingObjectMapper() : objectMapper;
+    }
+
+    private static RestClientResponseException deadlineExceeded() {
+        final HttpResultProvider.Result exceeded = Deadline.exceededResult();
+        return HttpResultProviders.statusException(exceeded.rawStatusCode, exceeded.headers, exceeded.body);
+    }
+
+    private FluxHttpResultProvider requireFluxProvider() {
+        final FluxHttpResultProvider fluxProvider = HttpResultProviders.find(httpResultProvider, FluxHttpResultProvider.class);
+        if (fluxProvider == null) {
+            throw streamingNotSupported();
+        }
+
+        return fluxProvider;
+    }
+
+    private IllegalStateException streamingNotSupported() {
+        return new IllegalStateException(String.format("streaming is not supported: %s", httpResultProvider.getClass().getName()));
+    }
+
+    private static Deadline.Scope enter(Deadline deadline) {
+        return deadline != null ? deadline.enter() : null;
+    }
+
+    private static boolean isDeadlineExpired() {
+        final Deadline deadline = Deadline.current();
+        return deadline != null && deadline.isExpired();
+    }
+
+    private HttpResultProvider.Result callResult(HttpMethod httpMethod, String url, HttpHeaders callHeaders, Object payload) {
+        if (isDeadlineExpired()) {
+            return Deadline.exceededResult();
+        }
+
+        final HttpHeaders httpHeaders = getDispatchTable().withAccept(callHeaders);
+
+        final long startNanos = System.nanoTime();
+
+        final HttpResultProvider.Result httpResult;
+        try {
+            httpResult = httpResultProvider.call(httpMethod, url, httpHeaders, payload);
+        } catch (RuntimeException e) {
+            metrics.recordTransportError(httpMethod, url, e, System.nanoTime() - startNanos);
+            throw e;
+        }
+
+        recordTransport(httpMethod, url, httpResult, System.nanoTime() - startNanos);
+        return httpResult;
+    }
+
+    private CompletableFuture<HttpResultProvider.Result> callResultAsync(HttpMethod httpMethod, String url, HttpHeaders callHeaders, Object payload) {
+        if (isDeadlineExpired()) {
+            return CompletableFuture.completedFuture(Deadline.exceededResult());
+        }
+
+        final HttpHeaders httpHeaders = getDispatchTable().withAccept(callHeaders);
+
+        if (httpResultProvider instanceof AsyncHttpResultProvider) {
+            final long startNanos = System.nanoTime();
+
+            return ((AsyncHttpResultProvider) httpResultProvider).callAsync(httpMethod, url, httpHeaders, payload)
+                    .whenComplete((httpResult, error) -> {
+                        final long durationNanos = System.nanoTime() - startNanos;
+                        if (error != null) {
+                            metrics.recordTransportError(httpMethod, url, unwrap(error), durationNanos);
+                        } else {
+                            recordTransport(httpMethod, url, httpResult, durationNanos);
+                        }
+                    });
+        }
+
+        // blocking provider: the call runs on the caller thread
+        final CompletableFuture<HttpResultProvider.Result> future = new CompletableFuture<>();
+        try {
+            future.complete(callResult(httpMethod, url, callHeaders, payload));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    private void recordTransport(HttpMethod httpMethod, String url, HttpResultProvider.Result httpResult, long durationNanos) {
+        if (httpResult != null) {
+            final int responseSize = httpResult.body != null ? httpResult.body.length : 0;
+            metrics.recordTransport(httpMethod, url, httpResult.rawStatusCode, responseSize, durationNanos);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+    }
+
+    private void checkNotFrozen() {
+        if (this.dispatchTable != null) {
+            throw new IllegalStateException("already frozen");
+        }
     }
 
     private void check(Class<? extends TResponse> responseClass) {
@@ -85,9 +630,56 @@ public final class DockingPoint<TResponse extends HttpStatusHolder> {
         }
     }
 
-    private void checkHttpStatus(HttpStatus httpStatus) {
-        if (this.responseDescriptors.containsKey(httpStatus)) {
-            throw new IllegalArgumentException(String.format("already have status: %s", httpStatus));
+    private static void check(ResponseDecoder responseDecoder) {
+        if (responseDecoder == null) {
+            throw new IllegalArgumentException("responseDecoder");
+        }
+    }
+
+    private void checkStatusCode(int statusCode) {
+        checkBounds(statusCode);
+
+        if (this.responseDescriptors.containsKey(statusCode)) {
+            throw new IllegalArgumentException(String.format("already have status: %d", statusCode));
+        }
+    }
+
+    private void checkRange(int fromStatusCode, int toStatusCode) {
+        checkBounds(fromStatusCode);
+        checkBounds(toStatusCode);
+
+        if (fromStatusCode > toStatusCode) {
+            throw new IllegalArgumentException(String.format("empty range: %d-%d", fromStatusCode, toStatusCode));
+        }
+
+        for (RangeValue range : this.rangeDescriptors) {
+            if (fromStatusCode <= range.toStatusCode && range.fromStatusCode <= toStatusCode) {
+                throw new IllegalArgumentException(String.format("already have range: %d-%d", range.fromStatusCode, range.toStatusCode));
+            }
+        }
+    }
+
+    private void checkSeries(HttpStatus.Series series) {
+        if (series == null) {
+            throw new IllegalArgumentException("series");
+        }
+
+        if (this.seriesDescriptors.containsKey(series)) {
+            throw new IllegalArgumentException(String.format("already have series: %s", series));
+        }
+    }
+
+    private static int toStatusCode(HttpStatus httpStatus) {
+        if (httpStatus == null) {
+            throw new IllegalArgumentException("httpStatus");
+        }
+
+        return httpStatus.value();
+    }
+
+    private static void checkBounds(int statusCode) {
+        if (statusCode < DispatchTable.MIN_STATUS_CODE || statusCode > DispatchTable.MAX_STATUS_CODE) {
+            throw new IllegalArgumentException(String.format("status out of range: %d", statusCode));
         }
     }
 
@@ -98,51 +690,338 @@ public final class DockingPoint<TResponse extends HttpStatusHolder> {
     }
 
     private Value createValue(Class<? extends TResponse> responseClass) {
-        return new Value(responseClass);
+        return new Value(responseClass, createReader(responseDecoder, responseClass));
     }
 
     private <TRawResponse> Value createValue(Class<TRawResponse> rawResponseClass, Function<TRawResponse, TResponse> responseMapper) {
-        return new Value(rawResponseClass, x -> responseMapper.apply((TRawResponse) x));
+        return new Value(rawResponseClass, createReader(responseDecoder, rawResponseClass), x -> responseMapper.apply((TRawResponse) x));
+    }
+
+    private static ResponseDecoder.Reader<?> createReader(ResponseDecoder responseDecoder, Class<?> rawResponseClass) {
+        // resolved once here, so the hot path skips the per-type lookup; String bodies are not decoded
+        return rawResponseClass != String.class
+                ? responseDecoder.readerFor(rawResponseClass)
+                : null;
     }
 
-    private TResponse dispatchResponse(HttpStatus key, String rawResponse) throws JsonProcessingException {
-        final Value value = this.responseDescriptors.get(key);
-        if (value != null) {
-            return acceptResponse(key, value, rawResponse);
+    private DispatchTable getDispatchTable() {
+        final DispatchTable dispatchTable = this.dispatchTable;
+        if (dispatchTable != null) {
+            return dispatchTable;
         }
 
-        if (this.defaultValue != null) {
-            return acceptResponse(key, this.defaultValue, rawResponse);
+        return freeze().dispatchTable;
+    }
+
+    private TResponse dispatchResponse(HttpMethod httpMethod, String url, HttpResultProvider.Result rawResponse) throws JsonProcessingException {
+        final Value value = getDispatchTable().get(rawResponse.rawStatusCode);
+        if (value == null) {
+            metrics.recordUnmatched(httpMethod, url, rawResponse.rawStatusCode);
+            return null;
         }
 
-        return null;
+        final long startNanos = System.nanoTime();
+        try {
+            return acceptResponse(rawResponse.rawStatusCode, value, rawResponse);
+        } finally {
+            metrics.recordDeserialization(httpMethod, url, rawResponse.rawStatusCode, System.nanoTime() - startNanos);
+        }
+    }
+
+    private LazyResponse<TResponse> lazyResponse(HttpMethod httpMethod, String url, HttpResultProvider.Result rawResponse) {
+        final Value value = getDispatchTable().get(rawResponse.rawStatusCode);
+        if (value == null) {
+            metrics.recordUnmatched(httpMethod, url, rawResponse.rawStatusCode);
+            return new LazyResponse<>(rawResponse, null);
+        }
+
+        return new LazyResponse<>(rawResponse, response -> {
+            final long startNanos = System.nanoTime();
+            try {
+                return acceptResponse(response.rawStatusCode, value, response);
+            } finally {
+                metrics.recordDeserialization(httpMethod, url, response.rawStatusCode, System.nanoTime() - startNanos);
+            }
+        });
     }
 
-    private TResponse acceptResponse(HttpStatus key, Value value, String rawResponse) throws JsonProcessingException {
-        final Object rawResponseValue = value.rawResponseClass != String.class
-                ? objectMapper.readValue(rawResponse, value.rawResponseClass)
-                : rawResponse;
+    private TResponse acceptResponse(int statusCode, Value value, HttpResultProvider.Result rawResponse) throws JsonProcessingException {
+        final Object rawResponseValue = value.reader == null
+                ? rawResponse.bodyAsString()
+                : HttpResultProviders.isSyntheticWithoutBody(rawResponse)
+                ? emptyValue(value.rawResponseClass)
+                : readValue(reader(value, rawResponse), rawResponse);
 
         final TResponse externalServiceResponse = value.rawResponseMapper == null
                 ? (TResponse) rawResponseValue
                 : (TResponse) value.rawResponseMapper.apply(rawResponseValue);
 
-        externalServiceResponse.setHttpStatus(key);
+        externalServiceResponse.setRawStatusCode(statusCode);
         return externalServiceResponse;
     }
 
+    // a deadline or open circuit result has no body to decode: the registered class is built from an
+    // empty JSON object instead (null/default fields), so it dispatches like an upstream 503/504
+    private Object emptyValue(Class<?> rawResponseClass) {
+        return objectMapper.convertValue(Collections.emptyMap(), rawResponseClass);
+    }
+
+    private ResponseDecoder.Reader<?> reader(Value value, HttpResultProvider.Result rawResponse) {
+        final Format format = getDispatchTable().formatFor(rawResponse.headers);
+        return format != null
+                ? format.readerFor(value.rawResponseClass)
+                : value.reader;
+    }
+
+    private static Object readValue(ResponseDecoder.Reader<?> reader, HttpResultProvider.Result rawResponse) throws JsonProcessingException {
+        try {
+            // a compressed body is inflated straight into the parser, never into a second buffer
+            return ContentEncoding.isEncoded(rawResponse.headers)
+                    ? reader.read(rawResponse.bodyAsStream())
+                    : reader.read(rawResponse.body);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            // byte[] sources only fail with plain I/O on a corrupt compressed body
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // releases the connection as soon as the last element was read
+    private static final class ClosingIterator<T> implements Iterator<T> {
+        private final MappingIterator<T> iterator;
+        private final Closeable resource;
+        private boolean closed;
+
+        private ClosingIterator(MappingIterator<T> iterator, Closeable resource) {
+            this.iterator = iterator;
+            this.resource = resource;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+
+            final boolean hasNext;
+            try {
+                hasNext = iterator.hasNext();
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+
+            if (!hasNext) {
+                close();
+            }
+
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return iterator.next();
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            try {
+                iterator.close();
+                resource.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private final class Batch {
+        private final List<BatchCall> calls;
+        private final Executor executor;
+        private final Consumer<BatchResult<TResponse>> resultConsumer;
+        private final Deadline deadline;
+        private final AtomicReferenceArray<BatchResult<TResponse>> results;
+        private final AtomicInteger next;
+        private final AtomicInteger remaining;
+        private final CompletableFuture<List<BatchResult<TResponse>>> done;
+
+        private Batch(List<BatchCall> calls, Executor executor, Consumer<BatchResult<TResponse>> resultConsumer, Deadline deadline) {
+            this.calls = calls;
+            this.executor = executor;
+            this.resultConsumer = resultConsumer;
+            this.deadline = deadline;
+            this.results = new AtomicReferenceArray<>(calls.size());
+            this.next = new AtomicInteger();
+            this.remaining = new AtomicInteger(calls.size());
+            this.done = new CompletableFuture<>();
+        }
+    }
+
+    private static final class DispatchTable {
+        private static final int MIN_STATUS_CODE = 100;
+        private static final int MAX_STATUS_CODE = 599;
+
+        private final Value[] values;
+        private final Value defaultValue;
+        private final Format[] formats;
+        // null without registered formats
+        private final String accept;
+
+        // precedence, lowest first: default < series < range < exact status
+        private DispatchTable(Map<Integer, Value> responseDescriptors,
+                              List<RangeValue> rangeDescriptors,
+                              Map<HttpStatus.Series, Value> seriesDescriptors,
+                              Value defaultValue,
+                              List<Format> formats) {
+            this.values = new Value[MAX_STATUS_CODE - MIN_STATUS_CODE + 1];
+            this.defaultValue = defaultValue;
+            this.formats = formats.toArray(new Format[0]);
+            this.accept = accept(this.formats);
+
+            Arrays.fill(this.values, defaultValue);
+            for (Map.Entry<HttpStatus.Series, Value> entry : seriesDescriptors.entrySet()) {
+                final int fromStatusCode = entry.getKey().value() * 100;
+                fill(fromStatusCode, fromStatusCode + 99, entry.getValue());
+            }
+
+            for (RangeValue range : rangeDescriptors) {
+                fill(range.fromStatusCode, range.toStatusCode, range.value);
+            }
+
+            for (Map.Entry<Integer, Value> entry : responseDescriptors.entrySet()) {
+                this.values[entry.getKey() - MIN_STATUS_CODE] = entry.getValue();
+            }
+        }
+
+        private void fill(int fromStatusCode, int toStatusCode, Value value) {
+            Arrays.fill(this.values, fromStatusCode - MIN_STATUS_CODE, toStatusCode - MIN_STATUS_CODE + 1, value);
+        }
+
+        private Value get(int statusCode) {
+            if (statusCode < MIN_STATUS_CODE || statusCode > MAX_STATUS_CODE) {
+                return defaultValue;
+            }
+
+            return values[statusCode - MIN_STATUS_CODE];
+        }
+
+        // a caller's own Accept wins
+        private HttpHeaders withAccept(HttpHeaders httpHeaders) {
+            if (accept == null || (httpHeaders != null && httpHeaders.containsKey(HttpHeaders.ACCEPT))) {
+                return httpHeaders;
+            }
+
+            final HttpHeaders acceptHeaders = new HttpHeaders();
+            if (httpHeaders != null) {
+                acceptHeaders.putAll(httpHeaders);
+            }
+
+            acceptHeaders.set(HttpHeaders.ACCEPT, accept);
+            return acceptHeaders;
+        }
+
+        // null: read as JSON
+        private Format formatFor(HttpHeaders headers) {
+            if (formats.length == 0) {
+                return null;
+            }
+
+            final String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+            if (contentType == null) {
+                return null;
+            }
+
+            final MediaType mediaType;
+            try {
+                mediaType = MediaType.parseMediaType(contentType);
+            } catch (InvalidMediaTypeException e) {
+                return null;
+            }
+
+            for (Format format : formats) {
+                if (format.mediaType.isCompatibleWith(mediaType)) {
+                    return format;
+                }
+            }
+
+            return null;
+        }
+
+        private static String accept(Format[] formats) {
+            if (formats.length == 0) {
+                return null;
+            }
+
+            final StringBuilder accept = new StringBuilder();
+            for (Format format : formats) {
+                accept.append(format.mediaType).append(", ");
+            }
+
+            return accept.append(MediaType.APPLICATION_JSON_VALUE).append(";q=0.9").toString();
+        }
+    }
+
+    private static final class RangeValue {
+        private final int fromStatusCode;
+        private final int toStatusCode;
+        private final Value value;
+
+        private RangeValue(int fromStatusCode, int toStatusCode, Value value) {
+            this.fromStatusCode = fromStatusCode;
+            this.toStatusCode = toStatusCode;
+            this.value = value;
+        }
+    }
+
     private static class Value {
-        private final Class rawResponseClass;
+        private final Class<?> rawResponseClass;
+        // null for String bodies
+        private final ResponseDecoder.Reader<?> reader;
         private final Function<Object, ?> rawResponseMapper;
 
-        private Value(Class rawResponseClass) {
+        private Value(Class<?> rawResponseClass, ResponseDecoder.Reader<?> reader) {
             this.rawResponseClass = rawResponseClass;
+            this.reader = reader;
             this.rawResponseMapper = null;
         }
 
-        private Value(Class rawResponseClass, Function<Object, ?> rawResponseMapper) {
+        private Value(Class<?> rawResponseClass, ResponseDecoder.Reader<?> reader, Function<Object, ?> rawResponseMapper) {
             this.rawResponseClass = rawResponseClass;
+            this.reader = reader;
             this.rawResponseMapper = rawResponseMapper;
         }
     }
+
+    private static final class Format {
+        private final MediaType mediaType;
+        private final ResponseDecoder responseDecoder;
+        // readers are resolved once per class
+        private final ConcurrentMap<Class<?>, ResponseDecoder.Reader<?>> readers;
+
+        private Format(MediaType mediaType, ResponseDecoder responseDecoder) {
+            this.mediaType = mediaType;
+            this.responseDecoder = responseDecoder;
+            this.readers = new ConcurrentHashMap<>();
+        }
+
+        private ResponseDecoder.Reader<?> readerFor(Class<?> rawResponseClass) {
+            return readers.computeIfAbsent(rawResponseClass, responseDecoder::readerFor);
+        }
+
+        private ObjectMapper streamingObjectMapper() {
+            if (!(responseDecoder instanceof JacksonResponseDecoder)) {
+                throw new IllegalStateException(String.format("streaming needs a Jackson format: %s", mediaType));
+            }
+
+            return ((JacksonResponseDecoder) responseDecoder).getObjectMapper();
+        }
+    }
 }
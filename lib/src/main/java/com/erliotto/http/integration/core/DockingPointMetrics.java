@@ -0,0 +1,33 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpMethod;
+
+import java.util.function.IntSupplier;
+
+public interface DockingPointMetrics {
+    DockingPointMetrics NOOP = new DockingPointMetrics() {
+    };
+
+    default void recordTransport(HttpMethod httpMethod, String url, int rawStatusCode, int responseSize, long durationNanos) {
+    }
+
+    default void recordTransportError(HttpMethod httpMethod, String url, Throwable error, long durationNanos) {
+    }
+
+    default void recordDeserialization(HttpMethod httpMethod, String url, int rawStatusCode, long durationNanos) {
+    }
+
+    default void recordUnmatched(HttpMethod httpMethod, String url, int rawStatusCode) {
+    }
+
+    // called once per host the first time ConcurrencyLimitingHttpResultProvider sees it
+    default void bindConcurrencyLimit(String host, IntSupplier limit, IntSupplier inFlight) {
+    }
+
+    default void recordConcurrencyLimitRejected(String host) {
+    }
+
+    // called once per connection pool of a pooled transport
+    default void bindConnectionPool(String pool, IntSupplier leased, IntSupplier pending, IntSupplier available, IntSupplier max) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.erliotto.http.integration.core;
+
+import com.dslplatform.json.DslJson;
+import com.dslplatform.json.JsonReader;
+import com.dslplatform.json.ParsingException;
+import com.dslplatform.json.runtime.Settings;
+import com.fasterxml.jackson.core.JsonParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// DSL-JSON codec; needs com.dslplatform:dsl-json-java8. Classes annotated with @CompiledJson get converters
+// generated at compile time by its annotation processor, others are analyzed by reflection on first use.
+// Jackson annotations are not honored at runtime.
+public final class DslJsonResponseDecoder implements ResponseDecoder {
+    private final DslJson<Object> dslJson;
+    // JsonReader keeps its buffers between calls, one per thread
+    private final ThreadLocal<JsonReader<Object>> jsonReaders;
+
+    public DslJsonResponseDecoder() {
+        this(new DslJson<>(Settings.withRuntime().includeServiceLoader()));
+    }
+
+    public DslJsonResponseDecoder(DslJson<Object> dslJson) {
+        if (dslJson == null) {
+            throw new IllegalArgumentException("dslJson");
+        }
+
+        this.dslJson = dslJson;
+        this.jsonReaders = ThreadLocal.withInitial(dslJson::newReader);
+    }
+
+    @Override
+    public <T> Reader<T> readerFor(Class<T> type) {
+        final JsonReader.ReadObject<T> readObject = dslJson.tryFindReader(type);
+        if (readObject == null) {
+            throw new IllegalArgumentException(String.format("no dsl-json reader: %s", type.getName()));
+        }
+
+        return new Reader<T>() {
+            @Override
+            public T read(byte[] body) throws IOException {
+                requireBody(body);
+                try {
+                    return dslJson.deserialize(readObject, jsonReaders.get().process(body, body.length));
+                } catch (ParsingException e) {
+                    throw new JsonParseException(null, e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public T read(InputStream body) throws IOException {
+                requireBody(body);
+                try {
+                    return dslJson.deserialize(type, body);
+                } catch (ParsingException e) {
+                    throw new JsonParseException(null, e.getMessage(), e);
+                }
+            }
+        };
+    }
+
+    // as ObjectReader does; dsl-json would fail with NullPointerException
+    private static void requireBody(Object body) {
+        if (body == null) {
+            throw new IllegalArgumentException("body");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// Async facade over a blocking provider: callAsync runs the blocking call on the executor, typically
+// VirtualThreads.newExecutor(..), so callAsync/callAll scale without a platform thread per call.
+// call stays on the caller thread. The caller's Deadline travels with the task.
+public final class ExecutorHttpResultProvider implements HttpResultProvider, AsyncHttpResultProvider, DelegatingHttpResultProvider {
+    private final HttpResultProvider delegate;
+    private final Executor executor;
+
+    public ExecutorHttpResultProvider(HttpResultProvider delegate, Executor executor) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate");
+        }
+
+        if (executor == null) {
+            throw new IllegalArgumentException("executor");
+        }
+
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public Object getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        return delegate.call(httpMethod, url, httpHeaders, payload);
+    }
+
+    @Override
+    public CompletableFuture<Result> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final Deadline deadline = Deadline.current();
+
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try (Deadline.Scope scope = deadline != null ? deadline.enter() : null) {
+                    return delegate.call(httpMethod, url, httpHeaders, payload);
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            // RejectedExecutionException: the executor is shut down
+            final CompletableFuture<Result> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+}
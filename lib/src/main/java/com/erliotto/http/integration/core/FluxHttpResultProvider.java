@@ -0,0 +1,15 @@
+package com.erliotto.http.integration.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Function;
+
+public interface FluxHttpResultProvider {
+    // elements of a top-level array, decoded as they arrive with the mapper objectMappers picks for the
+    // response headers; a non-2xx status is signalled as RestClientResponseException
+    <T> Flux<T> callFlux(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload,
+                         Function<HttpHeaders, ObjectMapper> objectMappers, Class<T> elementType);
+}
@@ -0,0 +1,255 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Hedged GET/HEAD calls: when no response arrived after the host's latency percentile, a second
+// identical call is sent; the first response wins and the other call is cancelled. Hedges are paid
+// from a budget that grows by budgetPercent of a token per call, so they stay within that share
+// of the traffic. Wrap a transport whose futures cancel the request (WebClientHttpResultProvider):
+// the futures of the other decorators do not propagate cancellation.
+public final class HedgingHttpResultProvider implements HttpResultProvider, AsyncHttpResultProvider, DelegatingHttpResultProvider {
+    // latencies kept per host, and how many are needed before the first hedge
+    private static final int LATENCY_WINDOW = 256;
+    private static final int MIN_SAMPLES = 32;
+    // the percentile is recomputed every so many samples, not on every call
+    private static final int RECOMPUTE_INTERVAL = 32;
+
+    private static final long TOKEN = 1000;
+    // unused hedges do not pile up beyond this
+    private static final long MAX_TOKENS = 10 * TOKEN;
+
+    private final AsyncHttpResultProvider delegate;
+    private final ScheduledExecutorService scheduler;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long tokensPerCall;
+    private final AtomicLong tokens;
+    private final ConcurrentMap<String, Latencies> latencies;
+    private final LongAdder hedged;
+
+    public HedgingHttpResultProvider(AsyncHttpResultProvider delegate,
+                                     ScheduledExecutorService scheduler,
+                                     double percentile,
+                                     Duration minDelay,
+                                     int budgetPercent) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate");
+        }
+
+        if (scheduler == null) {
+            throw new IllegalArgumentException("scheduler");
+        }
+
+        if (percentile <= 0 || percentile >= 100) {
+            throw new IllegalArgumentException("percentile");
+        }
+
+        if (minDelay == null || minDelay.isNegative()) {
+            throw new IllegalArgumentException("minDelay");
+        }
+
+        if (budgetPercent < 0 || budgetPercent > 100) {
+            throw new IllegalArgumentException("budgetPercent");
+        }
+
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.tokensPerCall = TOKEN * budgetPercent / 100;
+        this.tokens = new AtomicLong();
+        this.latencies = new ConcurrentHashMap<>();
+        this.hedged = new LongAdder();
+    }
+
+    @Override
+    public Object getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        return HttpResultProviders.join(callAsync(httpMethod, url, httpHeaders, payload));
+    }
+
+    @Override
+    public CompletableFuture<Result> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        if (!isHedgeable(httpMethod, payload)) {
+            return delegate.callAsync(httpMethod, url, httpHeaders, payload);
+        }
+
+        final Latencies hostLatencies = latenciesFor(url);
+        addTokens();
+
+        final long delayNanos = hostLatencies.delayNanos;
+        if (delayNanos < 0) {
+            return attempt(hostLatencies, httpMethod, url, httpHeaders, payload);
+        }
+
+        // the hedge is sent from the scheduler thread, under the caller's deadline
+        final Deadline deadline = Deadline.current();
+        final Hedge hedge = new Hedge();
+        hedge.primary = attempt(hostLatencies, httpMethod, url, httpHeaders, payload);
+        hedge.pending.incrementAndGet();
+        hedge.primary.whenComplete((result, error) -> hedge.onAttempt(result, error));
+
+        if (!hedge.result.isDone()) {
+            hedge.timer = scheduler.schedule(() -> {
+                if (hedge.result.isDone() || !tryAcquireToken()) {
+                    return;
+                }
+
+                hedged.increment();
+                hedge.pending.incrementAndGet();
+                try (Deadline.Scope scope = deadline != null ? deadline.enter() : null) {
+                    hedge.secondary = attempt(hostLatencies, httpMethod, url, httpHeaders, payload);
+                } catch (RuntimeException e) {
+                    // the scheduler would swallow it and the caller would wait for an attempt that never runs
+                    hedge.onAttempt(null, e);
+                    return;
+                }
+
+                hedge.secondary.whenComplete((result, error) -> hedge.onAttempt(result, error));
+
+                // the primary may have won while the hedge was being sent
+                if (hedge.result.isDone()) {
+                    hedge.secondary.cancel(true);
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        // the winner is in: stop the timer and the losing call, also when the caller cancels
+        hedge.result.whenComplete((result, error) -> hedge.cancelRest());
+
+        return hedge.result;
+    }
+
+    public long getHedgedCount() {
+        return hedged.sum();
+    }
+
+    private CompletableFuture<Result> attempt(Latencies hostLatencies, HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final long start = System.nanoTime();
+        final CompletableFuture<Result> future = delegate.callAsync(httpMethod, url, httpHeaders, payload);
+        future.whenComplete((result, error) -> {
+            if (error == null) {
+                hostLatencies.record(System.nanoTime() - start);
+            }
+        });
+
+        return future;
+    }
+
+    private static boolean isHedgeable(HttpMethod httpMethod, Object payload) {
+        return payload == null && (httpMethod == HttpMethod.GET || httpMethod == HttpMethod.HEAD);
+    }
+
+    private Latencies latenciesFor(String url) {
+        final String host = Urls.host(url);
+        final String key = host != null ? host : "";
+
+        final Latencies hostLatencies = latencies.get(key);
+        return hostLatencies != null ? hostLatencies : latencies.computeIfAbsent(key, k -> new Latencies());
+    }
+
+    private void addTokens() {
+        while (true) {
+            final long current = tokens.get();
+            if (current >= MAX_TOKENS || tokens.compareAndSet(current, Math.min(MAX_TOKENS, current + tokensPerCall))) {
+                return;
+            }
+        }
+    }
+
+    private boolean tryAcquireToken() {
+        while (true) {
+            final long current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private static final class Hedge {
+        private final CompletableFuture<Result> result = new CompletableFuture<>();
+        // attempts sent and not completed yet
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private volatile CompletableFuture<Result> primary;
+        private volatile CompletableFuture<Result> secondary;
+        private volatile ScheduledFuture<?> timer;
+
+        // first response wins; a failure only wins when no other attempt is still running
+        private void onAttempt(Result attemptResult, Throwable error) {
+            final int stillPending = pending.decrementAndGet();
+            if (error == null) {
+                result.complete(attemptResult);
+            } else if (stillPending == 0) {
+                result.completeExceptionally(HttpResultProviders.unwrap(error));
+            }
+        }
+
+        private void cancelRest() {
+            final ScheduledFuture<?> currentTimer = timer;
+            if (currentTimer != null) {
+                currentTimer.cancel(false);
+            }
+
+            cancel(primary);
+            cancel(secondary);
+        }
+
+        private static void cancel(CompletableFuture<Result> attempt) {
+            if (attempt != null && !attempt.isDone()) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    private final class Latencies {
+        private final AtomicLongArray samples = new AtomicLongArray(LATENCY_WINDOW);
+        private final AtomicLong count = new AtomicLong();
+
+        // < 0 until MIN_SAMPLES were recorded: no hedging on a cold host
+        private volatile long delayNanos = -1;
+
+        private void record(long latencyNanos) {
+            final long index = count.getAndIncrement();
+            samples.set((int) (index % LATENCY_WINDOW), latencyNanos);
+
+            final long recorded = index + 1;
+            if (recorded >= MIN_SAMPLES && recorded % RECOMPUTE_INTERVAL == 0) {
+                delayNanos = Math.max(minDelayNanos, percentile(Math.min(recorded, LATENCY_WINDOW)));
+            }
+        }
+
+        private long percentile(long size) {
+            final long[] sorted = new long[(int) size];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = samples.get(i);
+            }
+
+            Arrays.sort(sorted);
+            final int rank = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+        }
+    }
+}
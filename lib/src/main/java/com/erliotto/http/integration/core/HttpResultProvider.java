@@ -3,16 +3,80 @@ package com.erliotto.http.integration.core;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 public interface HttpResultProvider {
     final class Result {
+        public final int rawStatusCode;
+        // null for non-standard status codes
         public final HttpStatus httpStatus;
-        public final String body;
+        public final HttpHeaders headers;
+        public final byte[] body;
 
-        public Result(HttpStatus httpStatus, String body) {
-            this.httpStatus = httpStatus;
+        public Result(int rawStatusCode, HttpHeaders headers, byte[] body) {
+            this.rawStatusCode = rawStatusCode;
+            this.httpStatus = HttpStatus.resolve(rawStatusCode);
+            this.headers = headers != null
+                    ? HttpHeaders.readOnlyHttpHeaders(headers)
+                    : HttpHeaders.EMPTY;
             this.body = body;
         }
+
+        public Result(int rawStatusCode, byte[] body) {
+            this(rawStatusCode, null, body);
+        }
+
+        public Result(HttpStatus httpStatus, byte[] body) {
+            this(httpStatus.value(), null, body);
+        }
+
+        // null when the header is missing or malformed
+        public MediaType contentType() {
+            try {
+                return headers.getContentType();
+            } catch (InvalidMediaTypeException e) {
+                return null;
+            }
+        }
+
+        // body stays as received: a compressed body (Content-Encoding) is decoded here, not by the transport
+        public InputStream bodyAsStream() throws IOException {
+            final InputStream stream = new ByteArrayInputStream(body != null ? body : new byte[0]);
+
+            return ContentEncoding.isEncoded(headers)
+                    ? ContentEncoding.decode(headers, stream)
+                    : stream;
+        }
+
+        public String bodyAsString() {
+            if (body == null) {
+                return null;
+            }
+
+            final MediaType contentType = contentType();
+            final Charset charset = contentType != null && contentType.getCharset() != null
+                    ? contentType.getCharset()
+                    : StandardCharsets.UTF_8;
+
+            if (!ContentEncoding.isEncoded(headers)) {
+                return new String(body, charset);
+            }
+
+            try (InputStream stream = bodyAsStream()) {
+                return StreamUtils.copyToString(stream, charset);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
     Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload);
@@ -0,0 +1,105 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+final class HttpResultProviders {
+
+    private HttpResultProviders() {
+    }
+
+    // blocking providers run on the caller thread and hand back a completed future
+    static CompletableFuture<HttpResultProvider.Result> callAsync(HttpResultProvider httpResultProvider,
+                                                                  HttpMethod httpMethod,
+                                                                  String url,
+                                                                  HttpHeaders httpHeaders,
+                                                                  Object payload) {
+        if (httpResultProvider instanceof AsyncHttpResultProvider) {
+            return ((AsyncHttpResultProvider) httpResultProvider).callAsync(httpMethod, url, httpHeaders, payload);
+        }
+
+        final CompletableFuture<HttpResultProvider.Result> future = new CompletableFuture<>();
+        try {
+            future.complete(httpResultProvider.call(httpMethod, url, httpHeaders, payload));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    static HttpResultProvider.Result join(CompletableFuture<HttpResultProvider.Result> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    static RuntimeException unwrap(Throwable error) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+
+        return new CompletionException(cause);
+    }
+
+    // the first provider in the decorator chain implementing capability, or null
+    static <T> T find(Object httpResultProvider, Class<T> capability) {
+        Object current = httpResultProvider;
+        while (current != null) {
+            if (capability.isInstance(current)) {
+                return capability.cast(current);
+            }
+
+            current = current instanceof DelegatingHttpResultProvider
+                    ? ((DelegatingHttpResultProvider) current).getDelegate()
+                    : null;
+        }
+
+        return null;
+    }
+
+    // true when a call returns before the transport does: the chain hands off to an executor
+    // or ends in an async client
+    static boolean isNonBlocking(Object httpResultProvider) {
+        Object current = httpResultProvider;
+        while (current instanceof DelegatingHttpResultProvider) {
+            if (current instanceof ExecutorHttpResultProvider) {
+                return true;
+            }
+
+            current = ((DelegatingHttpResultProvider) current).getDelegate();
+        }
+
+        return current instanceof AsyncHttpResultProvider;
+    }
+
+    // made up by a decorator (deadline, open circuit) rather than answered by the upstream
+    static boolean isSyntheticWithoutBody(HttpResultProvider.Result result) {
+        return (result.body == null || result.body.length == 0)
+                && (result.headers.containsKey(Deadline.EXCEEDED_HEADER)
+                || result.headers.containsKey(CircuitBreakingHttpResultProvider.CIRCUIT_BREAKER_HEADER));
+    }
+
+    static RestClientResponseException statusException(int rawStatusCode, HttpHeaders headers, byte[] body) {
+        final HttpStatus httpStatus = HttpStatus.resolve(rawStatusCode);
+        final String statusText = httpStatus != null ? httpStatus.getReasonPhrase() : "";
+
+        return new RestClientResponseException(String.format("unexpected status: %d", rawStatusCode),
+                rawStatusCode, statusText, headers, body, null);
+    }
+}
@@ -5,4 +5,14 @@ import org.springframework.http.HttpStatus;
 public interface HttpStatusHolder {
     void setHttpStatus(HttpStatus httpStatus);
     HttpStatus getHttpStatus();
+
+    // non-standard codes have no HttpStatus, so holders that care should keep the raw value
+    default void setRawStatusCode(int rawStatusCode) {
+        setHttpStatus(HttpStatus.resolve(rawStatusCode));
+    }
+
+    default int getRawStatusCode() {
+        final HttpStatus httpStatus = getHttpStatus();
+        return httpStatus != null ? httpStatus.value() : 0;
+    }
 }
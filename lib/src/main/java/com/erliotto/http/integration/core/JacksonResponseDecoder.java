@@ -0,0 +1,60 @@
+package com.erliotto.http.integration.core;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public final class JacksonResponseDecoder implements ResponseDecoder {
+    private final ObjectMapper objectMapper;
+
+    public JacksonResponseDecoder(ObjectMapper objectMapper) {
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("objectMapper");
+        }
+
+        this.objectMapper = objectMapper;
+    }
+
+    // a copy of objectMapper with bytecode-generated accessors; needs jackson-module-afterburner
+    public static JacksonResponseDecoder afterburner(ObjectMapper objectMapper) {
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("objectMapper");
+        }
+
+        return new JacksonResponseDecoder(objectMapper.copy().registerModule(Afterburner.module()));
+    }
+
+    // AfterburnerModule named in this class would be resolved when it is verified, breaking every
+    // DockingPoint without the optional module on the classpath
+    private static final class Afterburner {
+        static Module module() {
+            return new AfterburnerModule();
+        }
+    }
+
+    ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    @Override
+    public <T> Reader<T> readerFor(Class<T> type) {
+        // resolved once here, so the hot path skips the root deserializer lookup
+        final ObjectReader objectReader = objectMapper.readerFor(type);
+
+        return new Reader<T>() {
+            @Override
+            public T read(byte[] body) throws IOException {
+                return objectReader.readValue(body);
+            }
+
+            @Override
+            public T read(InputStream body) throws IOException {
+                return objectReader.readValue(body);
+            }
+        };
+    }
+}
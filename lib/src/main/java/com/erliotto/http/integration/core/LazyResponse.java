@@ -0,0 +1,73 @@
+package com.erliotto.http.integration.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+// Status and headers of a DockingPoint.callLazy result; the body is parsed by the first get() and
+// the response cached, so status-only checks never pay for deserialization. A failed parse is not
+// cached: the next get() parses again.
+public final class LazyResponse<TResponse extends HttpStatusHolder> {
+    interface Parser<TResponse> {
+        TResponse parse(HttpResultProvider.Result rawResponse) throws JsonProcessingException;
+    }
+
+    private final int rawStatusCode;
+    private final HttpStatus httpStatus;
+    private final HttpHeaders headers;
+
+    // null when the status is not registered: get() returns null
+    private Parser<TResponse> parser;
+    // released once parsed, so the body bytes do not outlive the response
+    private HttpResultProvider.Result rawResponse;
+    private volatile boolean parsed;
+    private TResponse response;
+
+    LazyResponse(HttpResultProvider.Result rawResponse, Parser<TResponse> parser) {
+        this.rawStatusCode = rawResponse.rawStatusCode;
+        this.httpStatus = rawResponse.httpStatus;
+        this.headers = rawResponse.headers;
+        this.parser = parser;
+        this.rawResponse = rawResponse;
+    }
+
+    public int getRawStatusCode() {
+        return rawStatusCode;
+    }
+
+    // null for non-standard status codes
+    public HttpStatus getHttpStatus() {
+        return httpStatus;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public boolean isSuccess() {
+        return HttpStatus.Series.resolve(rawStatusCode) == HttpStatus.Series.SUCCESSFUL;
+    }
+
+    public boolean isParsed() {
+        return parsed;
+    }
+
+    public TResponse get() throws JsonProcessingException {
+        if (parsed) {
+            return response;
+        }
+
+        synchronized (this) {
+            if (!parsed) {
+                response = parser != null
+                        ? parser.parse(rawResponse)
+                        : null;
+                parser = null;
+                rawResponse = null;
+                parsed = true;
+            }
+
+            return response;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.erliotto.http.integration.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Body codec of DockingPoint, set globally (constructor, ResponseDecoder bean) or per registration.
+// readerFor runs once per registered class, so per-type setup stays off the hot path.
+public interface ResponseDecoder {
+    <T> Reader<T> readerFor(Class<T> type);
+
+    // an empty or malformed body throws JsonProcessingException, a null one IllegalArgumentException;
+    // readers are shared between threads
+    interface Reader<T> {
+        T read(byte[] body) throws IOException;
+
+        T read(InputStream body) throws IOException;
+    }
+}
@@ -3,11 +3,19 @@ package com.erliotto.http.integration.core;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
-public final class RestTemplateHttpResultProvider implements HttpResultProvider {
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+public final class RestTemplateHttpResultProvider implements HttpResultProvider, StreamingHttpResultProvider {
     private final RestTemplate restTemplate;
 
     public RestTemplateHttpResultProvider(RestTemplate restTemplate) {
@@ -16,15 +24,74 @@ public final class RestTemplateHttpResultProvider implements HttpResultProvider
 
     @Override
     public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        if (payload instanceof SerializedPayload) {
+            httpHeaders = ((SerializedPayload) payload).headers(httpHeaders);
+            payload = ((SerializedPayload) payload).getBytes();
+        }
+
         try {
-            final ResponseEntity<String> responseEntity = restTemplate.exchange(url, httpMethod, new HttpEntity(payload, httpHeaders), String.class);
+            final ResponseEntity<byte[]> responseEntity = restTemplate.exchange(url, httpMethod, new HttpEntity(payload, httpHeaders), byte[].class);
             if (responseEntity == null) {
                 return null;
             }
 
-            return new HttpResultProvider.Result(responseEntity.getStatusCode(), responseEntity.getBody());
-        } catch (HttpStatusCodeException e) {
-            return new HttpResultProvider.Result(e.getStatusCode(), e.getResponseBodyAsString());
+            return new HttpResultProvider.Result(responseEntity.getStatusCodeValue(), responseEntity.getHeaders(), responseEntity.getBody());
+        } catch (RestClientResponseException e) {
+            // also covers UnknownHttpStatusCodeException for non-standard codes
+            return new HttpResultProvider.Result(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+        } catch (ResourceAccessException e) {
+            // a socket timeout under a deadline is the deadline expiring (see DeadlineClientHttpRequestFactory)
+            if (Deadline.current() != null && e.getCause() instanceof SocketTimeoutException) {
+                return Deadline.exceededResult();
+            }
+
+            throw e;
+        }
+    }
+
+    // bypasses exchange(): the response must stay open after this method returns
+    @Override
+    public StreamingResult callStreaming(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) throws IOException {
+        final ClientHttpRequest request = restTemplate.getRequestFactory()
+                .createRequest(restTemplate.getUriTemplateHandler().expand(url), httpMethod);
+
+        if (httpHeaders != null) {
+            request.getHeaders().putAll(httpHeaders);
+        }
+
+        if (payload != null) {
+            writePayload(request, payload);
+        }
+
+        final ClientHttpResponse response = request.execute();
+        try {
+            return new StreamingResult(response.getRawStatusCode(), response.getHeaders(), response.getBody(), response);
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writePayload(ClientHttpRequest request, Object payload) throws IOException {
+        if (payload instanceof SerializedPayload) {
+            final SerializedPayload serialized = (SerializedPayload) payload;
+            if (request.getHeaders().getContentType() == null) {
+                request.getHeaders().setContentType(serialized.getContentType());
+            }
+
+            request.getBody().write(serialized.getBytes());
+            return;
+        }
+
+        final MediaType contentType = request.getHeaders().getContentType();
+        for (HttpMessageConverter<?> messageConverter : restTemplate.getMessageConverters()) {
+            if (messageConverter.canWrite(payload.getClass(), contentType)) {
+                ((HttpMessageConverter<Object>) messageConverter).write(payload, contentType, request);
+                return;
+            }
         }
+
+        throw new IllegalArgumentException(String.format("no message converter for payload: %s", payload.getClass().getName()));
     }
 }
@@ -0,0 +1,139 @@
+package com.erliotto.http.integration.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+// A request body serialized once: pass the same instance as payload to any number of calls (callAll
+// fan-out, retries) and every transport sends these bytes as they are. getBytes() is shared, never modify it.
+public final class SerializedPayload {
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+    // a thread keeps its buffer up to this size, larger ones are dropped after use
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(Buffer::new);
+
+    private final byte[] bytes;
+    private final MediaType contentType;
+
+    // gzipped once, on first use by CompressingHttpResultProvider
+    private volatile byte[] gzipped;
+
+    private SerializedPayload(byte[] bytes, MediaType contentType) {
+        this.bytes = bytes;
+        this.contentType = contentType;
+    }
+
+    public static SerializedPayload of(byte[] bytes, MediaType contentType) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("bytes");
+        }
+
+        if (contentType == null) {
+            throw new IllegalArgumentException("contentType");
+        }
+
+        return new SerializedPayload(bytes, contentType);
+    }
+
+    // the thread's buffer absorbs the growth, the payload keeps one exactly sized copy
+    public static SerializedPayload json(ObjectMapper objectMapper, Object payload) throws JsonProcessingException {
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("objectMapper");
+        }
+
+        final Buffer threadBuffer = BUFFERS.get();
+        // a serializer that serializes another payload on this thread gets its own buffer
+        final Buffer buffer = threadBuffer.inUse ? new Buffer() : threadBuffer;
+
+        buffer.inUse = true;
+        try {
+            objectMapper.writeValue(buffer, payload);
+            return new SerializedPayload(buffer.toByteArray(), MediaType.APPLICATION_JSON);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            // in-memory streams never fail with plain I/O
+            throw new IllegalStateException(e);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    // httpHeaders, or a copy with this payload's Content-Type when it has none
+    public HttpHeaders headers(HttpHeaders httpHeaders) {
+        if (httpHeaders != null && httpHeaders.containsKey(HttpHeaders.CONTENT_TYPE)) {
+            return httpHeaders;
+        }
+
+        final HttpHeaders headers = new HttpHeaders();
+        if (httpHeaders != null) {
+            headers.putAll(httpHeaders);
+        }
+
+        headers.setContentType(contentType);
+        return headers;
+    }
+
+    byte[] gzipped() {
+        byte[] gzipped = this.gzipped;
+        if (gzipped == null) {
+            // a race only gzips twice
+            gzipped = ContentEncoding.gzip(bytes);
+            this.gzipped = gzipped;
+        }
+
+        return gzipped;
+    }
+
+    // unsynchronized ByteArrayOutputStream, reused by its thread
+    private static final class Buffer extends OutputStream {
+        private byte[] buf = new byte[INITIAL_BUFFER_SIZE];
+        private int count;
+        private boolean inUse;
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(count + len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        private void ensureCapacity(int minCapacity) {
+            if (minCapacity > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(minCapacity, buf.length << 1));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buf, count);
+        }
+
+        private void release() {
+            count = 0;
+            inUse = false;
+            if (buf.length > MAX_RETAINED_BUFFER_SIZE) {
+                buf = new byte[INITIAL_BUFFER_SIZE];
+            }
+        }
+    }
+}
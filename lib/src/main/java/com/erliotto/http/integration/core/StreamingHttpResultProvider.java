@@ -0,0 +1,34 @@
+package com.erliotto.http.integration.core;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface StreamingHttpResultProvider {
+    final class StreamingResult implements Closeable {
+        public final int rawStatusCode;
+        public final HttpHeaders headers;
+        // read straight from the connection, not buffered
+        public final InputStream body;
+
+        private final Closeable response;
+
+        public StreamingResult(int rawStatusCode, HttpHeaders headers, InputStream body, Closeable response) {
+            this.rawStatusCode = rawStatusCode;
+            this.headers = headers != null ? HttpHeaders.readOnlyHttpHeaders(headers) : HttpHeaders.EMPTY;
+            this.body = body;
+            this.response = response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            response.close();
+        }
+    }
+
+    // the caller must close the result
+    StreamingResult callStreaming(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) throws IOException;
+}
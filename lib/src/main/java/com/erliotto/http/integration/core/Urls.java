@@ -0,0 +1,38 @@
+package com.erliotto.http.integration.core;
+
+import java.util.Locale;
+
+public final class Urls {
+    private Urls() {
+    }
+
+    // lower-cased host[:port] of an absolute url, without parsing it into a URI; null for relative urls
+    public static String host(String url) {
+        if (url == null) {
+            return null;
+        }
+
+        final int schemeEnd = url.indexOf("://");
+        if (schemeEnd < 0) {
+            return null;
+        }
+
+        int hostStart = schemeEnd + 3;
+        int hostEnd = url.length();
+        for (int i = hostStart; i < url.length(); i++) {
+            final char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#') {
+                hostEnd = i;
+                break;
+            }
+
+            if (c == '@') {
+                hostStart = i + 1;
+            }
+        }
+
+        return hostStart < hostEnd
+                ? url.substring(hostStart, hostEnd).toLowerCase(Locale.ROOT)
+                : null;
+    }
+}
@@ -1,42 +1,164 @@
 package com.erliotto.http.integration.core;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ResolvableType;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.web.reactive.function.BodyExtractors;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public final class WebClientHttpResultProvider implements HttpResultProvider {
-    private final WebClient.Builder webClientBuilder;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+public final class WebClientHttpResultProvider implements HttpResultProvider, AsyncHttpResultProvider, FluxHttpResultProvider {
+    private final WebClient webClient;
+    private final Duration timeout;
 
     public WebClientHttpResultProvider(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
+        this(webClientBuilder, null);
+    }
+
+    // timeout bounds calls made without a current deadline; null leaves them unbounded.
+    // Requests always carry an absolute uri, so one client built up front serves every origin.
+    public WebClientHttpResultProvider(WebClient.Builder webClientBuilder, Duration timeout) {
+        this.webClient = webClientBuilder.build();
+        this.timeout = timeout;
     }
 
     @Override
     public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        return exchange(httpMethod, url, httpHeaders, payload).block();
+    }
+
+    @Override
+    public CompletableFuture<Result> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        return exchange(httpMethod, url, httpHeaders, payload).toFuture();
+    }
+
+    @Override
+    public <T> Flux<T> callFlux(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload,
+                                Function<HttpHeaders, ObjectMapper> objectMappers, Class<T> elementType) {
+        final ResolvableType resolvableElementType = ResolvableType.forClass(elementType);
+
+        return request(httpMethod, url, httpHeaders, payload)
+                .exchange()
+                .flatMapMany(clientResponse -> {
+                    final HttpHeaders headers = clientResponse.headers().asHttpHeaders();
+                    if (HttpStatus.Series.resolve(clientResponse.rawStatusCode()) != HttpStatus.Series.SUCCESSFUL) {
+                        return clientResponse.bodyToMono(byte[].class)
+                                .defaultIfEmpty(new byte[0])
+                                .flatMapMany(body -> Flux.error(HttpResultProviders.statusException(clientResponse.rawStatusCode(), headers, body)));
+                    }
+
+                    final ObjectMapper objectMapper = objectMappers.apply(headers);
+                    if (!objectMapper.getFactory().canParseAsync()) {
+                        // formats without a non-blocking parser (CBOR) are read whole, then iterated
+                        return clientResponse.bodyToMono(byte[].class)
+                                .flatMapMany(body -> Flux.fromIterable(() -> readValues(objectMapper, elementType, body)));
+                    }
+
+                    // a Flux target makes the decoder tokenize the top-level array element by element
+                    return new Jackson2JsonDecoder(objectMapper).decode(clientResponse.body(BodyExtractors.toDataBuffers()),
+                            resolvableElementType, MediaType.APPLICATION_JSON, Collections.emptyMap())
+                            .cast(elementType);
+                });
+    }
+
+    private static <T> Iterator<T> readValues(ObjectMapper objectMapper, Class<T> elementType, byte[] body) {
         try {
-            final WebClient.RequestBodyUriSpec method = webClientBuilder
-                    .baseUrl(url)
-                    .build()
-                    .method(httpMethod);
+            return objectMapper.readerFor(elementType).readValues(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Mono<Result> exchange(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final Deadline deadline = currentDeadline();
+        if (deadline != null && deadline.isExpired()) {
+            return Mono.just(Deadline.exceededResult());
+        }
 
-            if (payload != null) {
-                method.bodyValue(payload);
-            }
+        Mono<ClientResponse> response = request(httpMethod, url, httpHeaders, payload).exchange();
 
-            if (httpHeaders != null) {
-                method.headers(h -> h.addAll(httpHeaders));
-            }
+        // the connect timeout is a client option in reactor-netty: per call only the response and total limits apply
+        final Duration responseTimeout = deadline != null ? deadline.responseTimeout() : null;
+        if (responseTimeout != null) {
+            response = response.timeout(responseTimeout);
+        }
+
+        final Mono<Result> result = response
+                .flatMap(clientResponse -> {
+                    final HttpHeaders headers = clientResponse.headers().asHttpHeaders();
+
+                    return clientResponse.bodyToMono(byte[].class)
+                            .map(body -> new HttpResultProvider.Result(clientResponse.rawStatusCode(), headers, body))
+                            .defaultIfEmpty(new HttpResultProvider.Result(clientResponse.rawStatusCode(), headers, null));
+                })
+                .onErrorResume(WebClientResponseException.class,
+                        e -> Mono.just(new HttpResultProvider.Result(e.getRawStatusCode(), e.getHeaders(), e.getResponseBodyAsByteArray())));
+
+        if (deadline == null) {
+            return result;
+        }
 
-            final Mono<ClientResponse> clientResponseMono = method.exchange();
-            final ClientResponse clientResponse = clientResponseMono.block();
-            final String body = clientResponse.bodyToMono(String.class).block();
+        return result.timeout(deadline.remaining())
+                .onErrorResume(TimeoutException.class, e -> Mono.just(Deadline.exceededResult()));
+    }
+
+    private WebClient.RequestBodySpec request(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+        final URI uri = toUri(url);
+        final WebClient.RequestBodySpec method = webClient
+                .method(httpMethod)
+                .uri(uri);
 
-            return new HttpResultProvider.Result(clientResponse.statusCode(), body);
-        } catch (WebClientResponseException e) {
-            return new HttpResultProvider.Result(e.getStatusCode(), e.getResponseBodyAsString());
+        if (payload instanceof SerializedPayload) {
+            method.bodyValue(((SerializedPayload) payload).getBytes());
+        } else if (payload != null) {
+            method.bodyValue(payload);
+        }
+
+        final HttpHeaders headers = payload instanceof SerializedPayload
+                ? ((SerializedPayload) payload).headers(httpHeaders)
+                : httpHeaders;
+        if (headers != null) {
+            method.headers(h -> h.addAll(headers));
+        }
+
+        return method;
+    }
+
+    private Deadline currentDeadline() {
+        final Deadline deadline = Deadline.current();
+        if (deadline != null || timeout == null) {
+            return deadline;
+        }
+
+        return Deadline.after(timeout);
+    }
+
+    private static URI toUri(String url) {
+        try {
+            return URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return UriComponentsBuilder.fromUriString(url)
+                    .build()
+                    .encode()
+                    .toUri();
         }
     }
 }
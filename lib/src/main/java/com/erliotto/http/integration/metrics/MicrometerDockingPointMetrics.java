@@ -0,0 +1,155 @@
+package com.erliotto.http.integration.metrics;
+
+import com.erliotto.http.integration.core.DockingPointMetrics;
+import com.erliotto.http.integration.core.Urls;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpMethod;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+public final class MicrometerDockingPointMetrics implements DockingPointMetrics {
+    public static final String TRANSPORT = "docking.point.transport";
+    public static final String DESERIALIZATION = "docking.point.deserialization";
+    public static final String RESPONSE_SIZE = "docking.point.response.size";
+    public static final String UNMATCHED = "docking.point.unmatched";
+    public static final String CONCURRENCY_LIMIT = "docking.point.concurrency.limit";
+    public static final String CONCURRENCY_IN_FLIGHT = "docking.point.concurrency.in.flight";
+    public static final String CONCURRENCY_REJECTED = "docking.point.concurrency.rejected";
+    public static final String POOL_CONNECTIONS = "docking.point.pool.connections";
+
+    static final String NONE = "none";
+    static final String OTHER = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxHosts;
+    private final Set<String> hosts;
+
+    public MicrometerDockingPointMetrics(MeterRegistry meterRegistry, int maxHosts) {
+        if (meterRegistry == null) {
+            throw new IllegalArgumentException("meterRegistry");
+        }
+
+        this.meterRegistry = meterRegistry;
+        this.maxHosts = maxHosts;
+        this.hosts = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public void recordTransport(HttpMethod httpMethod, String url, int rawStatusCode, int responseSize, long durationNanos) {
+        final Tags tags = tags(httpMethod, url, rawStatusCode);
+
+        Timer.builder(TRANSPORT)
+                .tags(tags)
+                .tag("exception", NONE)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder(RESPONSE_SIZE)
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(responseSize);
+    }
+
+    @Override
+    public void recordTransportError(HttpMethod httpMethod, String url, Throwable error, long durationNanos) {
+        Timer.builder(TRANSPORT)
+                .tags(Tags.of("host", host(url), "method", method(httpMethod), "status", NONE))
+                .tag("exception", error.getClass().getSimpleName())
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordDeserialization(HttpMethod httpMethod, String url, int rawStatusCode, long durationNanos) {
+        Timer.builder(DESERIALIZATION)
+                .tags(tags(httpMethod, url, rawStatusCode))
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordUnmatched(HttpMethod httpMethod, String url, int rawStatusCode) {
+        meterRegistry.counter(UNMATCHED, tags(httpMethod, url, rawStatusCode))
+                .increment();
+    }
+
+    // hosts past maxHosts share the "other" gauges, which report the first of them
+    @Override
+    public void bindConcurrencyLimit(String host, IntSupplier limit, IntSupplier inFlight) {
+        final String hostTag = hostTag(host);
+
+        Gauge.builder(CONCURRENCY_LIMIT, limit::getAsInt)
+                .tag("host", hostTag)
+                .register(meterRegistry);
+
+        Gauge.builder(CONCURRENCY_IN_FLIGHT, inFlight::getAsInt)
+                .tag("host", hostTag)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordConcurrencyLimitRejected(String host) {
+        meterRegistry.counter(CONCURRENCY_REJECTED, "host", hostTag(host))
+                .increment();
+    }
+
+    @Override
+    public void bindConnectionPool(String pool, IntSupplier leased, IntSupplier pending, IntSupplier available, IntSupplier max) {
+        bindPoolGauge(pool, "leased", leased);
+        bindPoolGauge(pool, "pending", pending);
+        bindPoolGauge(pool, "available", available);
+        bindPoolGauge(pool, "max", max);
+    }
+
+    private void bindPoolGauge(String pool, String state, IntSupplier value) {
+        Gauge.builder(POOL_CONNECTIONS, value::getAsInt)
+                .tags("pool", pool, "state", state)
+                .register(meterRegistry);
+    }
+
+    private Tags tags(HttpMethod httpMethod, String url, int rawStatusCode) {
+        return Tags.of("host", host(url), "method", method(httpMethod), "status", statusFamily(rawStatusCode));
+    }
+
+    // the raw url is never a tag: only its host, and only for the first maxHosts distinct hosts
+    String host(String url) {
+        return hostTag(Urls.host(url));
+    }
+
+    private String hostTag(String host) {
+        if (host == null || host.isEmpty()) {
+            return NONE;
+        }
+
+        if (hosts.contains(host)) {
+            return host;
+        }
+
+        if (hosts.size() >= maxHosts) {
+            return OTHER;
+        }
+
+        hosts.add(host);
+        return host;
+    }
+
+    private static String method(HttpMethod httpMethod) {
+        return httpMethod != null ? httpMethod.name() : NONE;
+    }
+
+    private static String statusFamily(int rawStatusCode) {
+        if (rawStatusCode < 100 || rawStatusCode > 599) {
+            return OTHER;
+        }
+
+        return (rawStatusCode / 100) + "xx";
+    }
+}
@@ -0,0 +1,250 @@
+package com.erliotto.http.integration.apache;
+
+import com.erliotto.http.integration.core.Deadline;
+import com.erliotto.http.integration.core.DefaultHttpStatusHolder;
+import com.erliotto.http.integration.core.DockingPoint;
+import com.erliotto.http.integration.core.DockingPointMetrics;
+import com.erliotto.http.integration.core.HttpResultProvider;
+import com.erliotto.http.integration.core.SerializedPayload;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApacheHttpClientResultProviderTests {
+    HttpServer server;
+    ExecutorService serverExecutor;
+    PoolingHttpClientConnectionManager connectionManager;
+    CloseableHttpClient httpClient;
+    ApacheHttpClientResultProvider provider;
+
+    public static final class Item {
+        @JsonProperty("id")
+        public final int id;
+
+        @JsonCreator
+        public Item(@JsonProperty("id") int id) {
+            this.id = id;
+        }
+    }
+
+    private static final class EchoResponse extends DefaultHttpStatusHolder {
+        public final String body;
+
+        EchoResponse(String body) {
+            this.body = body;
+        }
+    }
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/items", exchange -> respond(exchange, 200, "[{\"id\":1},{\"id\":2},{\"id\":3}]"));
+        server.createContext("/echo", exchange -> respond(exchange, 201,
+                exchange.getRequestHeaders().getFirst(HttpHeaders.CONTENT_TYPE) + " "
+                        + StreamUtils.copyToString(exchange.getRequestBody(), StandardCharsets.UTF_8)));
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "slow");
+        });
+
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        final RequestConfig requestConfig = ApacheHttpClients.createRequestConfig(
+                Duration.ofSeconds(5), Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofSeconds(30));
+
+        connectionManager = ApacheHttpClients.createConnectionManager(10, 2, null, Duration.ofSeconds(2));
+        httpClient = ApacheHttpClients.createHttpClient(connectionManager, requestConfig, Duration.ofSeconds(30));
+        provider = new ApacheHttpClientResultProvider(httpClient, new ObjectMapper(), requestConfig);
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        httpClient.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    private String createUrl(String path) {
+        return String.format("http://localhost:%d/%s", server.getAddress().getPort(), path);
+    }
+
+    @Test
+    void call_whenCalledRepeatedly_shouldReuseOnePooledConnection() {
+        // arrange
+        final Map<String, IntSupplier> stats = new HashMap<>();
+        ApacheHttpClients.bindMetrics(connectionManager, new DockingPointMetrics() {
+            @Override
+            public void bindConnectionPool(String pool, IntSupplier leased, IntSupplier pending, IntSupplier available, IntSupplier max) {
+                stats.put("leased", leased);
+                stats.put("pending", pending);
+                stats.put("available", available);
+                stats.put("max", max);
+            }
+        }, "test");
+
+        // act
+        HttpResultProvider.Result actual = null;
+        for (int i = 0; i < 3; i++) {
+            actual = provider.call(HttpMethod.GET, createUrl("items"), null, null);
+        }
+
+        // assert
+        assertThat(actual.rawStatusCode)
+                .isEqualTo(200);
+
+        assertThat(actual.bodyAsString())
+                .isEqualTo("[{\"id\":1},{\"id\":2},{\"id\":3}]");
+
+        assertThat(stats.get("leased").getAsInt())
+                .isEqualTo(0);
+
+        assertThat(stats.get("pending").getAsInt())
+                .isEqualTo(0);
+
+        assertThat(stats.get("available").getAsInt())
+                .isEqualTo(1);
+
+        assertThat(stats.get("max").getAsInt())
+                .isEqualTo(10);
+    }
+
+    @Test
+    void call_whenPostObjectPayload_shouldSendJsonThroughDockingPoint() throws JsonProcessingException {
+        // arrange
+        final HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setContentLength(1);
+
+        final DockingPoint<EchoResponse> dockingPoint = new DockingPoint<EchoResponse>(provider, new ObjectMapper())
+                .register(201, String.class, EchoResponse::new);
+
+        // act
+        final EchoResponse actual = dockingPoint.call(HttpMethod.POST, createUrl("echo"), httpHeaders, new Item(7));
+
+        // assert
+        assertThat(actual.body)
+                .isEqualTo("application/json; charset=UTF-8 {\"id\":7}");
+    }
+
+    @Test
+    void call_whenSerializedPayload_shouldSendItsBytesWithItsContentType() throws JsonProcessingException {
+        // arrange
+        final DockingPoint<EchoResponse> dockingPoint = new DockingPoint<EchoResponse>(provider, new ObjectMapper())
+                .register(201, String.class, EchoResponse::new);
+        final SerializedPayload payload = dockingPoint.serialize(new Item(7));
+
+        // act
+        final EchoResponse first = dockingPoint.call(HttpMethod.POST, createUrl("echo"), null, payload);
+        final EchoResponse second = dockingPoint.call(HttpMethod.PUT, createUrl("echo"), null, payload);
+
+        // assert
+        assertThat(first.body)
+                .isEqualTo("application/json {\"id\":7}");
+        assertThat(second.body)
+                .isEqualTo(first.body);
+    }
+
+    @Test
+    void callStream_whenGetJsonArray_shouldStreamElementsAndReleaseConnection() throws IOException {
+        // arrange
+        final DockingPoint<EchoResponse> dockingPoint = new DockingPoint<>(provider, new ObjectMapper());
+
+        // act
+        final List<Integer> actual;
+        try (Stream<Item> items = dockingPoint.callStream(HttpMethod.GET, createUrl("items"), null, null, Item.class)) {
+            actual = items.map(item -> item.id).collect(Collectors.toList());
+        }
+
+        // assert
+        assertThat(actual)
+                .containsExactly(1, 2, 3);
+
+        assertThat(connectionManager.getTotalStats().getLeased())
+                .isEqualTo(0);
+    }
+
+    @Test
+    void call_whenDeadlineExpires_shouldReturnExceededResult() {
+        // act
+        final HttpResultProvider.Result actual;
+        try (Deadline.Scope scope = Deadline.after(Duration.ofMillis(200)).enter()) {
+            actual = provider.call(HttpMethod.GET, createUrl("slow"), null, null);
+        }
+
+        // assert
+        assertThat(Deadline.isExceeded(actual))
+                .isTrue();
+    }
+
+    @Test
+    void call_whenPoolExhaustedAndDeadlineShorterThanLeaseTimeout_shouldReturnExceededResultWithinDeadline() throws Exception {
+        // arrange
+        final ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // both connections of the route are leased for the slow calls
+            callers.submit(() -> provider.call(HttpMethod.GET, createUrl("slow"), null, null));
+            callers.submit(() -> provider.call(HttpMethod.GET, createUrl("slow"), null, null));
+            Thread.sleep(200);
+
+            // act
+            final long start = System.nanoTime();
+            final HttpResultProvider.Result actual;
+            try (Deadline.Scope scope = Deadline.after(Duration.ofMillis(200)).enter()) {
+                actual = provider.call(HttpMethod.GET, createUrl("items"), null, null);
+            }
+            final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // assert
+            assertThat(Deadline.isExceeded(actual))
+                    .isTrue();
+
+            assertThat(elapsedMillis)
+                    .isLessThan(900);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.erliotto.http.integration.core;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingHttpResultProviderTests {
+    private static final String URL = "http://localhost/reference";
+
+    private static final class StubHttpResultProvider implements HttpResultProvider {
+        private final Deque<Result> results = new ArrayDeque<>();
+        private final List<HttpHeaders> requests = new ArrayList<>();
+
+        StubHttpResultProvider thenReturn(int status, HttpHeaders headers, String body) {
+            results.add(new Result(status, headers, body != null ? body.getBytes(StandardCharsets.UTF_8) : null));
+            return this;
+        }
+
+        @Override
+        public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+            requests.add(httpHeaders);
+            return results.poll();
+        }
+    }
+
+    private static HttpHeaders headers(String cacheControl, String eTag) {
+        final HttpHeaders headers = new HttpHeaders();
+        if (cacheControl != null) {
+            headers.setCacheControl(cacheControl);
+        }
+
+        if (eTag != null) {
+            headers.setETag(eTag);
+        }
+
+        return headers;
+    }
+
+    @Test
+    void call_whenFreshMaxAge_shouldServeFromCache() {
+        // arrange
+        final StubHttpResultProvider delegate = new StubHttpResultProvider()
+                .thenReturn(200, headers("max-age=60", null), "cached");
+
+        final CachingHttpResultProvider provider = new CachingHttpResultProvider(delegate, 10);
+
+        // act
+        provider.call(HttpMethod.GET, URL, null, null);
+        final HttpResultProvider.Result actual = provider.call(HttpMethod.GET, URL, null, null);
+
+        // assert
+        assertThat(actual.bodyAsString())
+                .isEqualTo("cached");
+
+        assertThat(delegate.requests)
+                .hasSize(1);
+
+        assertThat(provider.getStats().hits)
+                .isEqualTo(1);
+    }
+
+    @Test
+    void call_whenStaleWithETagAndNotModified_shouldRevalidateAndServeCachedBody() {
+        // arrange
+        final StubHttpResultProvider delegate = new StubHttpResultProvider()
+                .thenReturn(200, headers("no-cache", "\"v1\""), "cached")
+                .thenReturn(304, headers("no-cache", "\"v1\""), null);
+
+        final CachingHttpResultProvider provider = new CachingHttpResultProvider(delegate, 10);
+
+        // act
+        provider.call(HttpMethod.GET, URL, null, null);
+        final HttpResultProvider.Result actual = provider.call(HttpMethod.GET, URL, null, null);
+
+        // assert
+        assertThat(actual.rawStatusCode)
+                .isEqualTo(200);
+
+        assertThat(actual.bodyAsString())
+                .isEqualTo("cached");
+
+        assertThat(delegate.requests.get(1).getIfNoneMatch())
+                .containsExactly("\"v1\"");
+
+        assertThat(provider.getStats().revalidations)
+                .isEqualTo(1);
+    }
+
+    @Test
+    void call_whenNotModifiedHasOnlyETag_shouldKeepStoredCacheControlAndServeFresh() {
+        // arrange
+        final HttpHeaders staleHeaders = headers("max-age=60", "\"v1\"");
+        staleHeaders.set(HttpHeaders.AGE, "60");
+
+        final StubHttpResultProvider delegate = new StubHttpResultProvider()
+                .thenReturn(200, staleHeaders, "cached")
+                .thenReturn(304, headers(null, "\"v1\""), null);
+
+        final CachingHttpResultProvider provider = new CachingHttpResultProvider(delegate, 10);
+
+        // act
+        provider.call(HttpMethod.GET, URL, null, null);
+        provider.call(HttpMethod.GET, URL, null, null);
+        final HttpResultProvider.Result actual = provider.call(HttpMethod.GET, URL, null, null);
+
+        // assert
+        assertThat(actual.bodyAsString())
+                .isEqualTo("cached");
+
+        assertThat(actual.headers.getCacheControl())
+                .isEqualTo("max-age=60");
+
+        assertThat(delegate.requests)
+                .hasSize(2);
+
+        assertThat(provider.getStats().hits)
+                .isEqualTo(1);
+    }
+
+    @Test
+    void call_whenNoCacheWithoutValidator_shouldNotStore() {
+        // arrange
+        final StubHttpResultProvider delegate = new StubHttpResultProvider()
+                .thenReturn(200, headers("no-cache, max-age=60", null), "unvalidated");
+
+        final CachingHttpResultProvider provider = new CachingHttpResultProvider(delegate, 10);
+
+        // act
+        provider.call(HttpMethod.GET, URL, null, null);
+
+        // assert
+        assertThat(provider.getStats().size)
+                .isZero();
+    }
+
+    @Test
+    void call_whenNoStore_shouldAlwaysCallDelegate() {
+        // arrange
+        final StubHttpResultProvider delegate = new StubHttpResultProvider()
+                .thenReturn(200, headers("no-store, max-age=60", null), "first")
+                .thenReturn(200, headers("no-store, max-age=60", null), "second");
+
+        final CachingHttpResultProvider provider = new CachingHttpResultProvider(delegate, 10);
+
+        // act
+        provider.call(HttpMethod.GET, URL, null, null);
+        final HttpResultProvider.Result actual = provider.call(HttpMethod.GET, URL, null, null);
+
+        // assert
+        assertThat(actual.bodyAsString())
+                .isEqualTo("second");
+
+        assertThat(provider.getStats().misses)
+                .isEqualTo(2);
+    }
+
+    @Test
+    void call_whenMaxEntriesExceeded_shouldEvictLeastRecentlyUsed() {
+        // arrange
+        final StubHttpResultProvider delegate = new StubHttpResultProvider()
+                .thenReturn(200, headers("max-age=60", null), "a")
+                .thenReturn(200, headers("max-age=60", null), "b")
+                .thenReturn(200, headers("max-age=60", null), "a again");
+
+        final CachingHttpResultProvider provider = new CachingHttpResultProvider(delegate, 1);
+
+        // act
+        provider.call(HttpMethod.GET, URL + "/a", null, null);
+        provider.call(HttpMethod.GET, URL + "/b", null, null);
+        final HttpResultProvider.Result actual = provider.call(HttpMethod.GET, URL + "/a", null, null);
+
+        // assert
+        assertThat(actual.bodyAsString())
+                .isEqualTo("a again");
+
+        assertThat(provider.getStats().evictions)
+                .isEqualTo(2);
+    }
+
+    @Test
+    void call_whenDifferentAuthorizationWithoutSharedDirective_shouldNotShareEntry() {
+        // arrange
+        final StubHttpResultProvider delegate = new StubHttpResultProvider()
+                .thenReturn(200, headers("max-age=60", "\"alice\""), "alice")
+                .thenReturn(200, headers("max-age=60", "\"bob\""), "bob");
+
+        final CachingHttpResultProvider provider = new CachingHttpResultProvider(delegate, 10);
+
+        // act
+        provider.call(HttpMethod.GET, URL, authorization("Bearer alice"), null);
+        final HttpResultProvider.Result actual = provider.call(HttpMethod.GET, URL, authorization("Bearer bob"), null);
+
+        // assert
+        assertThat(actual.bodyAsString())
+                .isEqualTo("bob");
+
+        assertThat(delegate.requests)
+                .hasSize(2);
+
+        assertThat(provider.getStats().size)
+                .isZero();
+    }
+
+    @Test
+    void call_whenAuthorizedResponseHasSharedMaxAge_shouldServeFromCache() {
+        // arrange
+        final StubHttpResultProvider delegate = new StubHttpResultProvider()
+                .thenReturn(200, headers("s-maxage=60", null), "shared");
+
+        final CachingHttpResultProvider provider = new CachingHttpResultProvider(delegate, 10);
+
+        // act
+        provider.call(HttpMethod.GET, URL, authorization("Bearer alice"), null);
+        final HttpResultProvider.Result actual = provider.call(HttpMethod.GET, URL, authorization("Bearer bob"), null);
+
+        // assert
+        assertThat(actual.bodyAsString())
+                .isEqualTo("shared");
+
+        assertThat(delegate.requests)
+                .hasSize(1);
+    }
+
+    @Test
+    void call_whenVaryHeaderMissingWithAndWithoutHeaders_shouldServeFromCache() {
+        // arrange
+        final HttpHeaders responseHeaders = headers("max-age=60", null);
+        responseHeaders.setVary(Collections.singletonList(HttpHeaders.ACCEPT_LANGUAGE));
+
+        final StubHttpResultProvider delegate = new StubHttpResultProvider()
+                .thenReturn(200, responseHeaders, "varied");
+
+        final CachingHttpResultProvider provider = new CachingHttpResultProvider(delegate, 10);
+
+        // act
+        provider.call(HttpMethod.GET, URL, null, null);
+        final HttpResultProvider.Result actual = provider.call(HttpMethod.GET, URL, new HttpHeaders(), null);
+
+        // assert
+        assertThat(actual.bodyAsString())
+                .isEqualTo("varied");
+
+        assertThat(delegate.requests)
+                .hasSize(1);
+    }
+
+    private static HttpHeaders authorization(String value) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, value);
+        return headers;
+    }
+}
@@ -0,0 +1,103 @@
+package com.erliotto.http.integration.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakingHttpResultProviderTests {
+    private static final String HOST = "localhost:8080";
+    private static final String URL = "http://" + HOST + "/items";
+
+    private static final class OpenCircuitResponse extends DefaultHttpStatusHolder {
+    }
+
+    @Test
+    void call_whenFailureRateReachesThreshold_shouldOpenAndFailFast() throws Exception {
+        // arrange
+        final AtomicInteger calls = new AtomicInteger();
+        final HttpResultProvider delegate = (httpMethod, url, httpHeaders, payload) -> {
+            calls.incrementAndGet();
+            return new HttpResultProvider.Result(500, new byte[0]);
+        };
+
+        final CircuitBreakingHttpResultProvider provider = new CircuitBreakingHttpResultProvider(delegate,
+                4, 50, Duration.ofSeconds(10), Duration.ofMinutes(1), 503);
+
+        final DockingPoint<OpenCircuitResponse> dockingPoint = new DockingPoint<OpenCircuitResponse>(provider, new ObjectMapper())
+                .register(HttpStatus.SERVICE_UNAVAILABLE, String.class, raw -> new OpenCircuitResponse());
+
+        for (int i = 0; i < 4; i++) {
+            provider.call(HttpMethod.GET, URL, null, null);
+        }
+
+        // act
+        final HttpStatusHolder actual = dockingPoint.call(HttpMethod.GET, URL, null, null);
+
+        // assert
+        assertThat(provider.getState(HOST))
+                .isEqualTo(CircuitBreakingHttpResultProvider.State.OPEN);
+
+        assertThat(actual)
+                .isInstanceOf(OpenCircuitResponse.class);
+
+        assertThat(calls.get())
+                .isEqualTo(4);
+    }
+
+    @Test
+    void call_whenOpenDurationElapsedAndProbeSucceeds_shouldClose() throws Exception {
+        // arrange
+        final AtomicInteger status = new AtomicInteger(500);
+        final HttpResultProvider delegate = (httpMethod, url, httpHeaders, payload) ->
+                new HttpResultProvider.Result(status.get(), new byte[0]);
+
+        final CircuitBreakingHttpResultProvider provider = new CircuitBreakingHttpResultProvider(delegate,
+                2, 100, Duration.ofSeconds(10), Duration.ofMillis(20), 503);
+
+        provider.call(HttpMethod.GET, URL, null, null);
+        provider.call(HttpMethod.GET, URL, null, null);
+        status.set(200);
+        Thread.sleep(50);
+
+        // act
+        final HttpResultProvider.Result actual = provider.call(HttpMethod.GET, URL, null, null);
+
+        // assert
+        assertThat(actual.rawStatusCode)
+                .isEqualTo(200);
+
+        assertThat(provider.getState(HOST))
+                .isEqualTo(CircuitBreakingHttpResultProvider.State.CLOSED);
+    }
+
+    @Test
+    void call_whenDeadlineExceededResults_shouldStayClosed() {
+        // arrange
+        final AtomicInteger calls = new AtomicInteger();
+        final HttpResultProvider delegate = (httpMethod, url, httpHeaders, payload) -> {
+            calls.incrementAndGet();
+            return Deadline.exceededResult();
+        };
+
+        final CircuitBreakingHttpResultProvider provider = new CircuitBreakingHttpResultProvider(delegate,
+                4, 50, Duration.ofSeconds(10), Duration.ofMinutes(1), 503);
+
+        // act
+        for (int i = 0; i < 8; i++) {
+            provider.call(HttpMethod.GET, URL, null, null);
+        }
+
+        // assert
+        assertThat(provider.getState(HOST))
+                .isEqualTo(CircuitBreakingHttpResultProvider.State.CLOSED);
+
+        assertThat(calls.get())
+                .isEqualTo(8);
+    }
+}
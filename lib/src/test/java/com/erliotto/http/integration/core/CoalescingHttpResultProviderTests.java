@@ -0,0 +1,201 @@
+package com.erliotto.http.integration.core;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoalescingHttpResultProviderTests {
+    private static final String URL = "http://localhost/slow";
+
+    private static final class BlockingHttpResultProvider implements HttpResultProvider {
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+            calls.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return new Result(200, new byte[]{1});
+        }
+    }
+
+    // answers each call with a future the test completes
+    private static final class PendingHttpResultProvider implements HttpResultProvider, AsyncHttpResultProvider {
+        private final List<CompletableFuture<Result>> calls = new ArrayList<>();
+
+        @Override
+        public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+            return callAsync(httpMethod, url, httpHeaders, payload).join();
+        }
+
+        @Override
+        public synchronized CompletableFuture<Result> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+            final CompletableFuture<Result> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }
+    }
+
+    @Test
+    void call_whenConcurrentIdenticalGets_shouldCallDelegateOnce() throws Exception {
+        // arrange
+        final int callers = 8;
+        final BlockingHttpResultProvider delegate = new BlockingHttpResultProvider();
+        final CoalescingHttpResultProvider provider = new CoalescingHttpResultProvider(delegate, Collections.singletonList(HttpHeaders.AUTHORIZATION));
+        final ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            // act
+            final List<Future<HttpResultProvider.Result>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> provider.call(HttpMethod.GET, URL, null, null)));
+            }
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (provider.getCoalescedCount() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            delegate.release.countDown();
+
+            // assert
+            for (Future<HttpResultProvider.Result> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS).rawStatusCode)
+                        .isEqualTo(200);
+            }
+
+            assertThat(delegate.calls.get())
+                    .isEqualTo(1);
+
+            assertThat(provider.getInFlightCount())
+                    .isEqualTo(0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void call_whenKeyHeaderDiffers_shouldNotCoalesce() {
+        // arrange
+        final AtomicInteger calls = new AtomicInteger();
+        final HttpResultProvider delegate = (httpMethod, url, httpHeaders, payload) -> {
+            calls.incrementAndGet();
+            return new HttpResultProvider.Result(200, null);
+        };
+
+        final CoalescingHttpResultProvider provider = new CoalescingHttpResultProvider(delegate, Collections.singletonList(HttpHeaders.AUTHORIZATION));
+
+        final HttpHeaders first = new HttpHeaders();
+        first.setBearerAuth("first");
+
+        final HttpHeaders second = new HttpHeaders();
+        second.setBearerAuth("second");
+
+        // act
+        provider.call(HttpMethod.GET, URL, first, null);
+        provider.call(HttpMethod.GET, URL, second, null);
+
+        // assert
+        assertThat(calls.get())
+                .isEqualTo(2);
+
+        assertThat(provider.getCoalescedCount())
+                .isEqualTo(0);
+    }
+
+    @Test
+    void callAsync_whenConditionalOrRangeHeader_shouldNotCoalesce() {
+        // arrange
+        final PendingHttpResultProvider delegate = new PendingHttpResultProvider();
+        final CoalescingHttpResultProvider provider = new CoalescingHttpResultProvider(delegate, Collections.emptyList());
+
+        final HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch("\"v1\"");
+
+        final HttpHeaders range = new HttpHeaders();
+        range.set(HttpHeaders.RANGE, "bytes=0-99");
+
+        // act
+        provider.callAsync(HttpMethod.GET, URL, conditional, null);
+        provider.callAsync(HttpMethod.GET, URL, conditional, null);
+        provider.callAsync(HttpMethod.GET, URL, range, null);
+        provider.callAsync(HttpMethod.GET, URL, range, null);
+
+        // assert
+        assertThat(delegate.calls)
+                .hasSize(4);
+
+        assertThat(provider.getCoalescedCount())
+                .isEqualTo(0);
+    }
+
+    @Test
+    void callAsync_whenLeaderDeadlineExceeded_shouldReissueWaiterCall() {
+        // arrange
+        final PendingHttpResultProvider delegate = new PendingHttpResultProvider();
+        final CoalescingHttpResultProvider provider = new CoalescingHttpResultProvider(delegate, Collections.emptyList());
+
+        final CompletableFuture<HttpResultProvider.Result> leader = provider.callAsync(HttpMethod.GET, URL, null, null);
+        final CompletableFuture<HttpResultProvider.Result> waiter = provider.callAsync(HttpMethod.GET, URL, null, null);
+
+        // act
+        delegate.calls.get(0).complete(Deadline.exceededResult());
+        delegate.calls.get(1).complete(new HttpResultProvider.Result(200, new byte[]{1}));
+
+        // assert
+        assertThat(Deadline.isExceeded(leader.join()))
+                .isTrue();
+
+        assertThat(waiter.join().rawStatusCode)
+                .isEqualTo(200);
+
+        assertThat(delegate.calls)
+                .hasSize(2);
+    }
+
+    @Test
+    void callAsync_whenWaiterDeadlineEndsBeforeLeader_shouldCompleteWaiterWithExceededResult() throws Exception {
+        // arrange
+        final PendingHttpResultProvider delegate = new PendingHttpResultProvider();
+        final CoalescingHttpResultProvider provider = new CoalescingHttpResultProvider(delegate, Collections.emptyList());
+
+        final CompletableFuture<HttpResultProvider.Result> leader;
+        try (Deadline.Scope scope = Deadline.after(Duration.ofSeconds(5)).enter()) {
+            leader = provider.callAsync(HttpMethod.GET, URL, null, null);
+        }
+
+        // act
+        final CompletableFuture<HttpResultProvider.Result> waiter;
+        try (Deadline.Scope scope = Deadline.after(Duration.ofMillis(50)).enter()) {
+            waiter = provider.callAsync(HttpMethod.GET, URL, null, null);
+        }
+
+        // assert
+        assertThat(Deadline.isExceeded(waiter.get(5, TimeUnit.SECONDS)))
+                .isTrue();
+
+        assertThat(leader.isDone())
+                .isFalse();
+
+        assertThat(delegate.calls)
+                .hasSize(1);
+    }
+}
@@ -0,0 +1,253 @@
+package com.erliotto.http.integration.core;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressingHttpResultProviderTests {
+    private static final String URL = "http://localhost/reference";
+
+    // {"value":"brotli"} as a single uncompressed brotli meta-block
+    private static final byte[] BROTLI_BODY = Base64.getDecoder().decode("EAEQeyJ2YWx1ZSI6ImJyb3RsaSJ9Aw==");
+
+    public static final class ValueResponse extends DefaultHttpStatusHolder {
+        public final String value;
+
+        @JsonCreator
+        public ValueResponse(@JsonProperty("value") String value) {
+            this.value = value;
+        }
+    }
+
+    private static final class StubHttpResultProvider implements HttpResultProvider, StreamingHttpResultProvider {
+        private final List<HttpHeaders> requests = new ArrayList<>();
+        private final List<Object> payloads = new ArrayList<>();
+        private final String contentEncoding;
+        private final byte[] body;
+
+        StubHttpResultProvider(String contentEncoding, byte[] body) {
+            this.contentEncoding = contentEncoding;
+            this.body = body;
+        }
+
+        @Override
+        public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+            requests.add(httpHeaders);
+            payloads.add(payload);
+            return new Result(200, headers(), body);
+        }
+
+        @Override
+        public StreamingResult callStreaming(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+            requests.add(httpHeaders);
+            return new StreamingResult(200, headers(), new ByteArrayInputStream(body), () -> {
+            });
+        }
+
+        private HttpHeaders headers() {
+            final HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            if (contentEncoding != null) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+            }
+
+            return headers;
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] rawDeflate(byte[] body) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(buffer, new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+            deflate.write(body);
+        }
+
+        return buffer.toByteArray();
+    }
+
+    @Test
+    void call_whenGzipResponse_shouldAdvertiseEncodingsAndKeepBodyCompressedUntilParsed() throws JsonProcessingException {
+        // arrange
+        final byte[] compressed = ContentEncoding.gzip(bytes("{\"value\":\"gzip\"}"));
+        final StubHttpResultProvider delegate = new StubHttpResultProvider("gzip", compressed);
+        final CompressingHttpResultProvider provider = new CompressingHttpResultProvider(delegate, new ObjectMapper(),
+                Arrays.asList("gzip", "deflate", "br", "zstd"), -1);
+
+        final DockingPoint<ValueResponse> dockingPoint = new DockingPoint<ValueResponse>(provider, new ObjectMapper())
+                .register(200, ValueResponse.class);
+
+        // act
+        final HttpResultProvider.Result result = provider.call(HttpMethod.GET, URL, null, null);
+        final ValueResponse actual = dockingPoint.call(HttpMethod.GET, URL, null, null);
+
+        // assert
+        assertThat(delegate.requests.get(0).getFirst(HttpHeaders.ACCEPT_ENCODING))
+                .isEqualTo("gzip, deflate, br");
+
+        assertThat(result.body)
+                .isEqualTo(compressed);
+
+        assertThat(result.bodyAsString())
+                .isEqualTo("{\"value\":\"gzip\"}");
+
+        assertThat(actual.value)
+                .isEqualTo("gzip");
+    }
+
+    @Test
+    void call_whenPayloadAtLeastMinSize_shouldSendGzippedJson() throws IOException {
+        // arrange
+        final StubHttpResultProvider delegate = new StubHttpResultProvider(null, bytes("{}"));
+        final CompressingHttpResultProvider provider = new CompressingHttpResultProvider(delegate, new ObjectMapper(),
+                Collections.singletonList("gzip"), 24);
+
+        final HttpHeaders httpHeaders = HttpHeaders.readOnlyHttpHeaders(new HttpHeaders());
+
+        // act
+        provider.call(HttpMethod.POST, URL, httpHeaders, new ValueResponse("large enough to compress"));
+        provider.call(HttpMethod.POST, URL, httpHeaders, new ValueResponse("small"));
+
+        // assert
+        final HttpHeaders compressedHeaders = delegate.requests.get(0);
+        assertThat(compressedHeaders.getFirst(HttpHeaders.CONTENT_ENCODING))
+                .isEqualTo("gzip");
+
+        assertThat(compressedHeaders.getContentType())
+                .isEqualTo(MediaType.APPLICATION_JSON);
+
+        assertThat(StreamUtils.copyToString(new GZIPInputStream(new ByteArrayInputStream((byte[]) delegate.payloads.get(0))), StandardCharsets.UTF_8))
+                .isEqualTo("{\"value\":\"large enough to compress\"}");
+
+        assertThat(delegate.requests.get(1).containsKey(HttpHeaders.CONTENT_ENCODING))
+                .isFalse();
+
+        assertThat(delegate.payloads.get(1))
+                .isInstanceOf(ValueResponse.class);
+    }
+
+    @Test
+    void call_whenLargeXmlObjectOrForm_shouldLeaveBodyToTransport() {
+        // arrange
+        final StubHttpResultProvider delegate = new StubHttpResultProvider(null, bytes("{}"));
+        final CompressingHttpResultProvider provider = new CompressingHttpResultProvider(delegate, new ObjectMapper(),
+                Collections.singletonList("gzip"), 8);
+
+        final HttpHeaders xmlHeaders = new HttpHeaders();
+        xmlHeaders.setContentType(MediaType.APPLICATION_XML);
+        final ValueResponse xml = new ValueResponse("large enough to compress");
+
+        final HttpHeaders formHeaders = new HttpHeaders();
+        formHeaders.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+        final MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("value", "large enough to compress");
+
+        // act
+        provider.call(HttpMethod.POST, URL, xmlHeaders, xml);
+        provider.call(HttpMethod.POST, URL, formHeaders, form);
+        provider.call(HttpMethod.POST, URL, null, form);
+
+        // assert
+        assertThat(delegate.payloads)
+                .containsExactly(xml, form, form);
+
+        assertThat(delegate.requests)
+                .allSatisfy(headers -> assertThat(headers.containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse());
+
+        assertThat(delegate.requests.get(0).getContentType())
+                .isEqualTo(MediaType.APPLICATION_XML);
+
+        assertThat(delegate.requests.get(1).getContentType())
+                .isEqualTo(MediaType.APPLICATION_FORM_URLENCODED);
+    }
+
+    @Test
+    void call_whenLargeString_shouldSendGzippedUtf8WithCharset() throws IOException {
+        // arrange
+        final StubHttpResultProvider delegate = new StubHttpResultProvider(null, bytes("{}"));
+        final CompressingHttpResultProvider provider = new CompressingHttpResultProvider(delegate, new ObjectMapper(),
+                Collections.singletonList("gzip"), 8);
+
+        // act
+        provider.call(HttpMethod.POST, URL, null, "large enough to compress: \u00e9");
+
+        // assert
+        assertThat(delegate.requests.get(0).getContentType())
+                .isEqualTo(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+
+        assertThat(StreamUtils.copyToString(new GZIPInputStream(new ByteArrayInputStream((byte[]) delegate.payloads.get(0))), StandardCharsets.UTF_8))
+                .isEqualTo("large enough to compress: \u00e9");
+    }
+
+    @Test
+    void bodyAsString_whenBrotliOrRawDeflate_shouldDecode() throws IOException {
+        // arrange
+        final HttpHeaders brotli = new HttpHeaders();
+        brotli.set(HttpHeaders.CONTENT_ENCODING, "br");
+
+        final HttpHeaders deflate = new HttpHeaders();
+        deflate.set(HttpHeaders.CONTENT_ENCODING, "deflate");
+
+        // act
+        final String actualBrotli = new HttpResultProvider.Result(200, brotli, BROTLI_BODY).bodyAsString();
+        final String actualDeflate = new HttpResultProvider.Result(200, deflate, rawDeflate(bytes("raw deflate"))).bodyAsString();
+
+        // assert
+        assertThat(actualBrotli)
+                .isEqualTo("{\"value\":\"brotli\"}");
+
+        assertThat(actualDeflate)
+                .isEqualTo("raw deflate");
+    }
+
+    @Test
+    void callStreaming_whenGzipBody_shouldDecodeAsReadAndDropContentEncoding() throws IOException {
+        // arrange
+        final StubHttpResultProvider delegate = new StubHttpResultProvider("gzip", ContentEncoding.gzip(bytes("[1,2,3]")));
+        final CompressingHttpResultProvider provider = new CompressingHttpResultProvider(delegate, new ObjectMapper(),
+                Collections.singletonList("gzip"), -1);
+
+        final DockingPoint<ValueResponse> dockingPoint = new DockingPoint<>(provider, new ObjectMapper());
+
+        // act
+        final List<Integer> actual = new ArrayList<>();
+        try (Stream<Integer> stream = dockingPoint.callStream(HttpMethod.GET, URL, null, null, Integer.class)) {
+            stream.forEach(actual::add);
+        }
+
+        final StreamingHttpResultProvider.StreamingResult streamingResult = provider.callStreaming(HttpMethod.GET, URL, null, null);
+
+        // assert
+        assertThat(actual)
+                .containsExactly(1, 2, 3);
+
+        assertThat(streamingResult.headers.containsKey(HttpHeaders.CONTENT_ENCODING))
+                .isFalse();
+    }
+}
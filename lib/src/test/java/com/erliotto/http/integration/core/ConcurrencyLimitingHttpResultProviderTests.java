@@ -0,0 +1,80 @@
+package com.erliotto.http.integration.core;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitingHttpResultProviderTests {
+    private static final String HOST = "localhost:8080";
+    private static final String URL = "http://" + HOST + "/items";
+
+    @Test
+    void call_whenHostAtLimit_shouldRejectFast() throws Exception {
+        // arrange
+        final CountDownLatch release = new CountDownLatch(1);
+        final HttpResultProvider delegate = (httpMethod, url, httpHeaders, payload) -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return new HttpResultProvider.Result(200, new byte[0]);
+        };
+
+        final ConcurrencyLimitingHttpResultProvider provider =
+                new ConcurrencyLimitingHttpResultProvider(delegate, DockingPointMetrics.NOOP, 2, 1, 10);
+
+        final CompletableFuture<HttpResultProvider.Result> first = CompletableFuture.supplyAsync(() -> provider.call(HttpMethod.GET, URL, null, null));
+        final CompletableFuture<HttpResultProvider.Result> second = CompletableFuture.supplyAsync(() -> provider.call(HttpMethod.GET, URL, null, null));
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (provider.getInFlight(HOST) < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        try {
+            // act
+            assertThatThrownBy(() -> provider.call(HttpMethod.GET, URL, null, null))
+                    .isInstanceOf(ConcurrencyLimitExceededException.class)
+                    .hasMessageContaining(HOST);
+        } finally {
+            release.countDown();
+        }
+
+        // assert
+        assertThat(first.get(10, TimeUnit.SECONDS).rawStatusCode)
+                .isEqualTo(200);
+
+        assertThat(second.get(10, TimeUnit.SECONDS).rawStatusCode)
+                .isEqualTo(200);
+
+        assertThat(provider.getInFlight(HOST))
+                .isEqualTo(0);
+    }
+
+    @Test
+    void call_whenUpstreamSheds_shouldBackOffToMinLimit() {
+        // arrange
+        final HttpResultProvider delegate = (httpMethod, url, httpHeaders, payload) ->
+                new HttpResultProvider.Result(503, new byte[0]);
+
+        final ConcurrencyLimitingHttpResultProvider provider =
+                new ConcurrencyLimitingHttpResultProvider(delegate, DockingPointMetrics.NOOP, 20, 2, 100);
+
+        // act
+        for (int i = 0; i < 50; i++) {
+            provider.call(HttpMethod.GET, URL, null, null);
+        }
+
+        // assert
+        assertThat(provider.getLimit(HOST))
+                .isEqualTo(2);
+    }
+}
@@ -15,6 +15,16 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -245,4 +255,176 @@ class DockingPointIntegrationTests {
                 .isInstanceOf(UnknownResponse.class);
     }
 
+    @Test
+    void callAsync_whenWebClientProviderAndGetJson_thenReturnExpectedStatusAndData() {
+        // arrange
+        final DockingPoint<TestOnlyRestController.ReturnTypes.Json> dockingPoint =
+                new DockingPoint<TestOnlyRestController.ReturnTypes.Json>(new WebClientHttpResultProvider(WebClient.builder()), new ObjectMapper())
+                        .register(HttpStatus.OK, TestOnlyRestController.ReturnTypes.Json.class);
+
+        // act
+        final CompletableFuture<TestOnlyRestController.ReturnTypes.Json> future =
+                dockingPoint.callAsync(HttpMethod.GET, createUrl("getJson"), null, null);
+
+        // assert
+        final TestOnlyRestController.ReturnTypes.Json json = future.join();
+
+        assertThat(json)
+                .isNotNull();
+
+        assertThat(json.getHttpStatus())
+                .isEqualTo(HttpStatus.OK);
+
+        assertThat(json.id)
+                .isEqualTo(102);
+    }
+
+    @Test
+    void callAsync_whenWebClientProviderAndCallUnknownUrlAndRegisterDefault_thenReturn404Status() {
+        final class StringResponse extends DefaultHttpStatusHolder {
+            public final String answer;
+
+            public StringResponse(String rawResponse) {
+                this.answer = rawResponse;
+            }
+        }
+
+        // arrange
+        final DockingPoint<StringResponse> dockingPoint =
+                new DockingPoint<StringResponse>(new WebClientHttpResultProvider(WebClient.builder()), new ObjectMapper())
+                        .registerDefault(String.class, rawResponse -> new StringResponse(rawResponse));
+
+        // act
+        final StringResponse stringResponse = dockingPoint.callAsync(HttpMethod.GET, createUrl("unknownUrl"), null, null).join();
+
+        // assert
+        assertThat(stringResponse)
+                .isNotNull();
+
+        assertThat(stringResponse.getHttpStatus())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private static final class DeadlineResponse extends DefaultHttpStatusHolder {
+        public final boolean exceeded;
+
+        DeadlineResponse(boolean exceeded) {
+            this.exceeded = exceeded;
+        }
+    }
+
+    @Test
+    void call_whenWebClientProviderAndDeadlineExpires_thenReturnExceededStatus() throws JsonProcessingException {
+        // arrange
+        final DockingPoint<DeadlineResponse> dockingPoint =
+                new DockingPoint<DeadlineResponse>(new WebClientHttpResultProvider(WebClient.builder()), new ObjectMapper())
+                        .register(Deadline.EXCEEDED_STATUS_CODE, String.class, raw -> new DeadlineResponse(true))
+                        .register(HttpStatus.OK, String.class, raw -> new DeadlineResponse(false));
+
+        final long start = System.nanoTime();
+
+        // act
+        final DeadlineResponse actual = dockingPoint.call(HttpMethod.GET, createUrl("getSlowString"), null, null,
+                Deadline.after(Duration.ofMillis(200)));
+
+        // assert
+        assertThat(actual.exceeded)
+                .isTrue();
+
+        assertThat(actual.getRawStatusCode())
+                .isEqualTo(Deadline.EXCEEDED_STATUS_CODE);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start))
+                .isLessThan(Duration.ofMillis(1500));
+    }
+
+    @Test
+    void call_whenRestTemplateProviderAndNestedDeadlineExpires_thenReturnExceededStatus() throws JsonProcessingException {
+        // arrange
+        final RestTemplate deadlineRestTemplate = new RestTemplate(new DeadlineClientHttpRequestFactory());
+        final DockingPoint<DeadlineResponse> dockingPoint =
+                new DockingPoint<DeadlineResponse>(new RestTemplateHttpResultProvider(deadlineRestTemplate), new ObjectMapper())
+                        .register(Deadline.EXCEEDED_STATUS_CODE, String.class, raw -> new DeadlineResponse(true))
+                        .register(HttpStatus.OK, String.class, raw -> new DeadlineResponse(false));
+
+        final DeadlineResponse actual;
+        final long start = System.nanoTime();
+
+        // act: the inner, longer deadline only gets what is left of the outer one
+        try (Deadline.Scope outer = Deadline.after(Duration.ofMillis(200)).enter()) {
+            actual = dockingPoint.call(HttpMethod.GET, createUrl("getSlowString"), null, null,
+                    Deadline.after(Duration.ofSeconds(30)));
+        }
+
+        // assert
+        assertThat(actual.exceeded)
+                .isTrue();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start))
+                .isLessThan(Duration.ofMillis(1500));
+
+        assertThat(Deadline.current())
+                .isNull();
+    }
+
+    @Test
+    void callStream_whenRestTemplateProviderAndGetJsonArray_thenReturnElementsInOrder() throws IOException {
+        // arrange
+        final DockingPoint<TestOnlyRestController.ReturnTypes.Json> dockingPoint =
+                new DockingPoint<>(new RestTemplateHttpResultProvider(new RestTemplate()), new ObjectMapper());
+
+        // act
+        final List<TestOnlyRestController.ReturnTypes.Json> actual;
+        try (Stream<TestOnlyRestController.ReturnTypes.Json> stream = dockingPoint.callStream(HttpMethod.GET,
+                createUrl("getJsonArray?count=1000"), null, null, TestOnlyRestController.ReturnTypes.Json.class)) {
+            actual = stream.collect(Collectors.toList());
+        }
+
+        // assert
+        assertThat(actual)
+                .hasSize(1000);
+
+        assertThat(actual.get(999).id)
+                .isEqualTo(999);
+
+        assertThat(actual.get(999).name)
+                .isEqualTo("item 999");
+    }
+
+    @Test
+    void callFlux_whenWebClientProviderAndGetJsonArray_thenEmitElementsInOrder() {
+        // arrange
+        final DockingPoint<TestOnlyRestController.ReturnTypes.Json> dockingPoint =
+                new DockingPoint<>(new WebClientHttpResultProvider(WebClient.builder()), new ObjectMapper());
+
+        // act
+        final List<TestOnlyRestController.ReturnTypes.Json> actual = dockingPoint.callFlux(HttpMethod.GET,
+                createUrl("getJsonArray?count=1000"), null, null, TestOnlyRestController.ReturnTypes.Json.class)
+                .collectList()
+                .block();
+
+        // assert
+        assertThat(actual)
+                .hasSize(1000);
+
+        assertThat(actual.get(0).name)
+                .isEqualTo("item 0");
+    }
+
+    @Test
+    void callStream_whenWebClientProviderAndUnknownUrl_thenThrowRestClientResponseException() {
+        // arrange
+        final DockingPoint<TestOnlyRestController.ReturnTypes.Json> dockingPoint =
+                new DockingPoint<>(new WebClientHttpResultProvider(WebClient.builder()), new ObjectMapper());
+
+        // act
+        assertThatThrownBy(() -> {
+            try (Stream<TestOnlyRestController.ReturnTypes.Json> stream = dockingPoint.callStream(HttpMethod.GET,
+                    createUrl("unknownUrl"), null, null, TestOnlyRestController.ReturnTypes.Json.class)) {
+                stream.count();
+            }
+        })
+                .isInstanceOf(RestClientResponseException.class)
+                .hasMessageContaining("404");
+    }
 }
@@ -1,9 +1,11 @@
 package com.erliotto.http.integration.core;
 
+import com.erliotto.http.integration.metrics.MicrometerDockingPointMetrics;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -12,12 +14,32 @@ import org.mockito.stubbing.OngoingStubbing;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.*;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
-
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @SpringBootTest
 public class DockingPointTests {
@@ -51,6 +73,11 @@ public class DockingPointTests {
         }
     }
 
+    // mutable bean, as DSL-JSON reads it by reflection without Jackson annotations
+    public static final class DslItem {
+        public String id;
+    }
+
     private final static class ResponseFromInt extends DefaultHttpStatusHolder {
         public ResponseFromInt(int data) {
         }
@@ -86,14 +113,14 @@ public class DockingPointTests {
         return dockingPoint.call(HttpMethod.GET, url, httpHeaders, payload);
     }
 
-    private HttpStatusHolder actWithResponse(DockingPoint dockingPoint, ResponseEntity<String> responseEntity) throws JsonProcessingException {
+    private HttpStatusHolder actWithResponse(DockingPoint dockingPoint, ResponseEntity<byte[]> responseEntity) throws JsonProcessingException {
         return act(dockingPoint, when -> when.thenReturn(responseEntity));
     }
 
-    private ResponseEntity<String> createResponseEntity(HttpStatus status, Object stubResponse) {
-        final String responseStub;
+    private ResponseEntity<byte[]> createResponseEntity(HttpStatus status, Object stubResponse) {
+        final byte[] responseStub;
         try {
-            responseStub = objectMapper.writeValueAsString(stubResponse);
+            responseStub = objectMapper.writeValueAsBytes(stubResponse);
             return new ResponseEntity(responseStub, status);
         } catch (JsonProcessingException e) {
             return null;
@@ -119,6 +146,35 @@ public class DockingPointTests {
                 .hasMessageContaining("already have status");
     }
 
+    @Test
+    void register_afterFreeze_shouldThrowIllegalStateException() {
+        // arrange
+        final DockingPoint dockingPoint = new DockingPoint(createHttpResultProvider(), objectMapper)
+                .register(HttpStatus.OK, ReturnTypes.OkResponse.class)
+                .freeze();
+
+        // act
+        assertThatThrownBy(() -> dockingPoint.registerDefault(ReturnTypes.UnexpectedResponse.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already frozen");
+    }
+
+    @Test
+    void register_afterCall_shouldThrowIllegalStateException() throws JsonProcessingException {
+        // arrange
+        final ReturnTypes.OkResponse expectedResponse = new ReturnTypes.OkResponse("id value");
+
+        final DockingPoint dockingPoint = new DockingPoint(createHttpResultProvider(), objectMapper)
+                .register(HttpStatus.OK, expectedResponse.getClass());
+
+        actWithResponse(dockingPoint, createResponseEntity(HttpStatus.OK, expectedResponse));
+
+        // act
+        assertThatThrownBy(() -> dockingPoint.register(HttpStatus.CREATED, expectedResponse.getClass()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already frozen");
+    }
+
     @Test
     void call_whenHttpResultIsNull_shouldReturnNull() throws JsonProcessingException {
         // arrange
@@ -324,4 +380,509 @@ public class DockingPointTests {
                 .isInstanceOf(JsonProcessingException.class);
     }
 
+    private static final class TaggedResponse extends DefaultHttpStatusHolder {
+        public final String tag;
+
+        TaggedResponse(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private ResponseEntity<byte[]> createResponseEntity(int rawStatusCode) {
+        return ResponseEntity.status(rawStatusCode).body(new byte[0]);
+    }
+
+    @Test
+    void call_whenRegisterStatusRangeSeriesAndDefault_shouldPreferMostSpecific() throws JsonProcessingException {
+        // arrange
+        final DockingPoint<TaggedResponse> dockingPoint = new DockingPoint<TaggedResponse>(createHttpResultProvider(), objectMapper)
+                .registerDefault(String.class, raw -> new TaggedResponse("default"))
+                .registerSeries(HttpStatus.Series.SUCCESSFUL, String.class, raw -> new TaggedResponse("series"))
+                .registerRange(200, 209, String.class, raw -> new TaggedResponse("range"))
+                .register(HttpStatus.OK, String.class, raw -> new TaggedResponse("status"));
+
+        // act & assert
+        assertThat(((TaggedResponse) actWithResponse(dockingPoint, createResponseEntity(200))).tag)
+                .isEqualTo("status");
+
+        assertThat(((TaggedResponse) actWithResponse(dockingPoint, createResponseEntity(201))).tag)
+                .isEqualTo("range");
+
+        assertThat(((TaggedResponse) actWithResponse(dockingPoint, createResponseEntity(250))).tag)
+                .isEqualTo("series");
+
+        assertThat(((TaggedResponse) actWithResponse(dockingPoint, createResponseEntity(404))).tag)
+                .isEqualTo("default");
+    }
+
+    @Test
+    void call_whenNonStandardStatus_shouldDispatchByRawStatusCode() throws JsonProcessingException {
+        // arrange
+        final DockingPoint<TaggedResponse> dockingPoint = new DockingPoint<TaggedResponse>(createHttpResultProvider(), objectMapper)
+                .register(520, String.class, raw -> new TaggedResponse("origin error"))
+                .registerSeries(HttpStatus.Series.SERVER_ERROR, String.class, raw -> new TaggedResponse("server error"));
+
+        // act
+        final HttpStatusHolder actual = actWithResponse(dockingPoint, createResponseEntity(520));
+        final HttpStatusHolder actualSeries = actWithResponse(dockingPoint, createResponseEntity(599));
+
+        // assert
+        assertThat(((TaggedResponse) actual).tag)
+                .isEqualTo("origin error");
+
+        assertThat(actual.getRawStatusCode())
+                .isEqualTo(520);
+
+        assertThat(actual.getHttpStatus())
+                .isNull();
+
+        assertThat(((TaggedResponse) actualSeries).tag)
+                .isEqualTo("server error");
+    }
+
+    @Test
+    void registerRange_onOverlappingRange_shouldThrowIllegalArgumentException() {
+        // arrange
+        final DockingPoint dockingPoint = new DockingPoint(createHttpResultProvider(), objectMapper)
+                .registerRange(400, 409, ReturnTypes.UnexpectedResponse.class);
+
+        // act
+        assertThatThrownBy(() -> dockingPoint.registerRange(405, 420, ReturnTypes.UnexpectedResponse.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("already have range");
+    }
+
+    @Test
+    void call_whenMicrometerMetrics_shouldRecordTransportDeserializationAndUnmatched() throws JsonProcessingException {
+        // arrange
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final ReturnTypes.OkResponse expectedResponse = new ReturnTypes.OkResponse("id value");
+
+        final DockingPoint dockingPoint = new DockingPoint(createHttpResultProvider(), objectMapper, new MicrometerDockingPointMetrics(meterRegistry, 10))
+                .register(HttpStatus.OK, expectedResponse.getClass());
+
+        // act
+        actWithResponse(dockingPoint, createResponseEntity(HttpStatus.OK, expectedResponse));
+        actWithResponse(dockingPoint, createResponseEntity(HttpStatus.NOT_FOUND, expectedResponse));
+
+        // assert
+        assertThat(meterRegistry.get(MicrometerDockingPointMetrics.TRANSPORT).tag("method", "GET").tag("status", "2xx").timer().count())
+                .isEqualTo(1);
+
+        assertThat(meterRegistry.get(MicrometerDockingPointMetrics.DESERIALIZATION).tag("status", "2xx").timer().count())
+                .isEqualTo(1);
+
+        assertThat(meterRegistry.get(MicrometerDockingPointMetrics.RESPONSE_SIZE).tag("status", "4xx").summary().count())
+                .isEqualTo(1);
+
+        assertThat(meterRegistry.get(MicrometerDockingPointMetrics.UNMATCHED).tag("status", "4xx").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void call_whenSyntheticResultAndJsonClassRegistered_shouldDispatchEmptyInstance() throws JsonProcessingException {
+        // arrange
+        final AtomicInteger calls = new AtomicInteger();
+        final HttpResultProvider failing = (httpMethod, url, httpHeaders, payload) -> {
+            calls.incrementAndGet();
+            return new HttpResultProvider.Result(500, new byte[0]);
+        };
+
+        final CircuitBreakingHttpResultProvider circuitBreaker = new CircuitBreakingHttpResultProvider(failing,
+                1, 50, Duration.ofSeconds(10), Duration.ofMinutes(1), 503);
+        circuitBreaker.call(HttpMethod.GET, "http://localhost/items", null, null);
+
+        final HttpResultProvider exceeded = (httpMethod, url, httpHeaders, payload) -> Deadline.exceededResult();
+
+        final DockingPoint<ReturnTypes.UnexpectedResponse> openDockingPoint = new DockingPoint<ReturnTypes.UnexpectedResponse>(circuitBreaker, objectMapper)
+                .register(HttpStatus.SERVICE_UNAVAILABLE, ReturnTypes.UnexpectedResponse.class);
+
+        final DockingPoint<ReturnTypes.UnexpectedResponse> exceededDockingPoint = new DockingPoint<ReturnTypes.UnexpectedResponse>(exceeded, objectMapper)
+                .register(HttpStatus.GATEWAY_TIMEOUT, ReturnTypes.UnexpectedResponse.class);
+
+        // act
+        final ReturnTypes.UnexpectedResponse actualOpen = openDockingPoint.call(HttpMethod.GET, "http://localhost/items", null, null);
+        final ReturnTypes.UnexpectedResponse actualExceeded = exceededDockingPoint.call(HttpMethod.GET, "http://localhost/items", null, null);
+
+        // assert
+        assertThat(actualOpen.getRawStatusCode())
+                .isEqualTo(503);
+
+        assertThat(actualOpen.name)
+                .isNull();
+
+        assertThat(actualExceeded.getRawStatusCode())
+                .isEqualTo(504);
+
+        assertThat(calls.get())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void callAll_whenSomeCallsFail_shouldKeepOrderIsolateErrorsAndBoundParallelism() {
+        // arrange
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final HttpResultProvider httpResultProvider = (httpMethod, url, httpHeaders, payload) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+                if (url.equals("url 3")) {
+                    throw new IllegalStateException("broken");
+                }
+
+                return new HttpResultProvider.Result(HttpStatus.OK, url.getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+
+        final DockingPoint<TaggedResponse> dockingPoint = new DockingPoint<TaggedResponse>(httpResultProvider, objectMapper)
+                .register(HttpStatus.OK, String.class, TaggedResponse::new);
+
+        final List<BatchCall> calls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            calls.add(new BatchCall(HttpMethod.GET, "url " + i, null, null));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<BatchResult<TaggedResponse>> actual;
+        try {
+            // act
+            actual = dockingPoint.callAll(calls, 3, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        // assert
+        assertThat(actual)
+                .hasSize(calls.size());
+
+        for (int i = 0; i < calls.size(); i++) {
+            assertThat(actual.get(i).index)
+                    .isEqualTo(i);
+
+            if (i == 3) {
+                assertThat(actual.get(i).error)
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessage("broken");
+            } else {
+                assertThat(actual.get(i).response.tag)
+                        .isEqualTo("url " + i);
+            }
+        }
+
+        assertThat(maxInFlight.get())
+                .isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void callAll_whenDecoratorOverBlockingProvider_shouldRunCallsInParallelOnExecutor() {
+        // arrange
+        final Thread callerThread = Thread.currentThread();
+        final CountDownLatch allStarted = new CountDownLatch(3);
+        final HttpResultProvider blockingProvider = (httpMethod, url, httpHeaders, payload) -> {
+            allStarted.countDown();
+            try {
+                final boolean parallel = allStarted.await(5, TimeUnit.SECONDS);
+                final String tag = parallel && Thread.currentThread() != callerThread ? "parallel" : "serial";
+                return new HttpResultProvider.Result(HttpStatus.OK, tag.getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        final DockingPoint<TaggedResponse> dockingPoint = new DockingPoint<TaggedResponse>(
+                new CachingHttpResultProvider(blockingProvider, 10), objectMapper)
+                .register(HttpStatus.OK, String.class, TaggedResponse::new);
+
+        final List<BatchCall> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            calls.add(new BatchCall(HttpMethod.POST, "url " + i, null, null));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        final List<BatchResult<TaggedResponse>> actual;
+        try {
+            // act
+            actual = dockingPoint.callAll(calls, 3, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        // assert
+        assertThat(actual)
+                .extracting(batchResult -> batchResult.response.tag)
+                .containsOnly("parallel");
+    }
+
+    @Test
+    void call_whenFormatsRegistered_shouldSendAcceptAndReadEachResponseByContentType() throws JsonProcessingException {
+        // arrange
+        final ReturnTypes.OkResponse body = new ReturnTypes.OkResponse("binary");
+        final List<String> accepts = new ArrayList<>();
+        final HttpResultProvider httpResultProvider = (httpMethod, url, httpHeaders, payload) -> {
+            accepts.add(httpHeaders.getFirst(HttpHeaders.ACCEPT));
+
+            final ObjectMapper formatObjectMapper = url.equals("smile") ? BinaryFormats.smile()
+                    : url.equals("cbor") ? BinaryFormats.cbor()
+                    : url.equals("msgpack") ? BinaryFormats.messagePack()
+                    : objectMapper;
+
+            final HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(url.equals("smile") ? BinaryFormats.SMILE
+                    : url.equals("cbor") ? BinaryFormats.CBOR
+                    : url.equals("msgpack") ? BinaryFormats.MESSAGE_PACK
+                    : MediaType.APPLICATION_JSON);
+
+            try {
+                return new HttpResultProvider.Result(200, headers, formatObjectMapper.writeValueAsBytes(body));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        final DockingPoint<ReturnTypes.OkResponse> dockingPoint = new DockingPoint<ReturnTypes.OkResponse>(httpResultProvider, objectMapper)
+                .registerFormat(BinaryFormats.SMILE, BinaryFormats.smile())
+                .registerFormat(BinaryFormats.CBOR, BinaryFormats.cbor())
+                .registerFormat(BinaryFormats.MESSAGE_PACK, BinaryFormats.messagePack())
+                .register(HttpStatus.OK, ReturnTypes.OkResponse.class);
+
+        final HttpHeaders jsonOnly = new HttpHeaders();
+        jsonOnly.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+
+        // act
+        final List<String> actual = new ArrayList<>();
+        for (String url : Arrays.asList("smile", "cbor", "msgpack")) {
+            actual.add(dockingPoint.call(HttpMethod.GET, url, null, null).id);
+        }
+
+        actual.add(dockingPoint.call(HttpMethod.GET, "json", jsonOnly, null).id);
+
+        // assert
+        assertThat(actual)
+                .containsExactly("binary", "binary", "binary", "binary");
+
+        assertThat(accepts.get(0))
+                .isEqualTo("application/x-jackson-smile, application/cbor, application/x-msgpack, application/json;q=0.9");
+
+        assertThat(accepts.get(3))
+                .isEqualTo("application/json");
+    }
+
+    @Test
+    void call_whenDslJsonDecoder_shouldDecodeAndReportMalformedBodyAsJsonProcessingException() throws JsonProcessingException {
+        // arrange
+        final HttpResultProvider httpResultProvider = (httpMethod, url, httpHeaders, payload) -> new HttpResultProvider.Result(
+                HttpStatus.OK, (url.equals("malformed") ? "{\"id\":" : "{\"id\":\"dsl\",\"other\":1}").getBytes(StandardCharsets.UTF_8));
+
+        final DockingPoint<ReturnTypes.OkResponse> dockingPoint = new DockingPoint<ReturnTypes.OkResponse>(httpResultProvider, objectMapper,
+                DockingPointMetrics.NOOP, new DslJsonResponseDecoder())
+                .register(HttpStatus.OK, DslItem.class, item -> new ReturnTypes.OkResponse(item.id));
+
+        // act
+        final ReturnTypes.OkResponse actual = dockingPoint.call(HttpMethod.GET, "ok", null, null);
+
+        // assert
+        assertThat(actual.id)
+                .isEqualTo("dsl");
+
+        assertThatThrownBy(() -> dockingPoint.call(HttpMethod.GET, "malformed", null, null))
+                .isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void call_whenDecoderPerRegistration_shouldUseItOnlyForThatStatus() throws JsonProcessingException {
+        // arrange
+        final List<Class<?>> decodedTypes = new ArrayList<>();
+        final ResponseDecoder recordingDecoder = new ResponseDecoder() {
+            private final ResponseDecoder delegate = JacksonResponseDecoder.afterburner(objectMapper);
+
+            @Override
+            public <T> Reader<T> readerFor(Class<T> type) {
+                decodedTypes.add(type);
+                return delegate.readerFor(type);
+            }
+        };
+
+        final HttpResultProvider httpResultProvider = (httpMethod, url, httpHeaders, payload) -> url.equals("ok")
+                ? new HttpResultProvider.Result(HttpStatus.OK, "{\"Id\":\"afterburner\"}".getBytes(StandardCharsets.UTF_8))
+                : new HttpResultProvider.Result(HttpStatus.NOT_FOUND, "{\"Name\":\"jackson\"}".getBytes(StandardCharsets.UTF_8));
+
+        final DockingPoint<HttpStatusHolder> dockingPoint = new DockingPoint<HttpStatusHolder>(httpResultProvider, objectMapper)
+                .register(HttpStatus.OK, ReturnTypes.OkResponse.class, recordingDecoder)
+                .register(HttpStatus.NOT_FOUND, ReturnTypes.UnexpectedResponse.class);
+
+        // act
+        final HttpStatusHolder ok = dockingPoint.call(HttpMethod.GET, "ok", null, null);
+        final HttpStatusHolder notFound = dockingPoint.call(HttpMethod.GET, "not found", null, null);
+
+        // assert
+        assertThat(((ReturnTypes.OkResponse) ok).id)
+                .isEqualTo("afterburner");
+
+        assertThat(((ReturnTypes.UnexpectedResponse) notFound).name)
+                .isEqualTo("jackson");
+
+        assertThat(decodedTypes)
+                .containsExactly(ReturnTypes.OkResponse.class);
+    }
+
+    @Test
+    void callLazy_whenOnlyStatusIsRead_shouldNotParseBody() {
+        // arrange
+        final HttpResultProvider httpResultProvider = (httpMethod, url, httpHeaders, payload) ->
+                new HttpResultProvider.Result(HttpStatus.CREATED, "not json".getBytes(StandardCharsets.UTF_8));
+
+        final DockingPoint<ReturnTypes.OkResponse> dockingPoint = new DockingPoint<ReturnTypes.OkResponse>(httpResultProvider, objectMapper)
+                .register(HttpStatus.CREATED, ReturnTypes.OkResponse.class);
+
+        // act
+        final LazyResponse<ReturnTypes.OkResponse> actual = dockingPoint.callLazy(HttpMethod.POST, "created", null, "payload");
+
+        // assert
+        assertThat(actual.isSuccess())
+                .isTrue();
+        assertThat(actual.getHttpStatus())
+                .isEqualTo(HttpStatus.CREATED);
+        assertThat(actual.isParsed())
+                .isFalse();
+        assertThatThrownBy(actual::get)
+                .isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void callLazy_whenGetCalledTwice_shouldParseOnceAndCacheResponse() throws JsonProcessingException {
+        // arrange
+        final List<Class<?>> readTypes = new ArrayList<>();
+        final ResponseDecoder countingDecoder = new ResponseDecoder() {
+            private final ResponseDecoder delegate = new JacksonResponseDecoder(objectMapper);
+
+            @Override
+            public <T> Reader<T> readerFor(Class<T> type) {
+                final Reader<T> reader = delegate.readerFor(type);
+                return new Reader<T>() {
+                    @Override
+                    public T read(byte[] body) throws IOException {
+                        readTypes.add(type);
+                        return reader.read(body);
+                    }
+
+                    @Override
+                    public T read(InputStream body) throws IOException {
+                        readTypes.add(type);
+                        return reader.read(body);
+                    }
+                };
+            }
+        };
+
+        final HttpResultProvider httpResultProvider = (httpMethod, url, httpHeaders, payload) ->
+                new HttpResultProvider.Result(HttpStatus.OK, "{\"Id\":\"lazy\"}".getBytes(StandardCharsets.UTF_8));
+
+        final DockingPoint<ReturnTypes.OkResponse> dockingPoint = new DockingPoint<ReturnTypes.OkResponse>(httpResultProvider, objectMapper)
+                .register(HttpStatus.OK, ReturnTypes.OkResponse.class, countingDecoder);
+
+        // act
+        final LazyResponse<ReturnTypes.OkResponse> actual = dockingPoint.callLazyAsync(HttpMethod.GET, "ok", null, null).join();
+        final ReturnTypes.OkResponse first = actual.get();
+        final ReturnTypes.OkResponse second = actual.get();
+
+        // assert
+        assertThat(first.id)
+                .isEqualTo("lazy");
+        assertThat(first.getHttpStatus())
+                .isEqualTo(HttpStatus.OK);
+        assertThat(second)
+                .isSameAs(first);
+        assertThat(readTypes)
+                .containsExactly(ReturnTypes.OkResponse.class);
+    }
+
+    @Test
+    void callStream_whenFluxOnlyProvider_shouldSendAcceptAndReadRegisteredFormat() {
+        // arrange
+        final List<String> accepts = new ArrayList<>();
+        final class FluxOnlyHttpResultProvider implements HttpResultProvider, FluxHttpResultProvider {
+            @Override
+            public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public <T> Flux<T> callFlux(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload,
+                                        Function<HttpHeaders, ObjectMapper> objectMappers, Class<T> elementType) {
+                accepts.add(httpHeaders.getFirst(HttpHeaders.ACCEPT));
+
+                final HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(BinaryFormats.CBOR);
+                try {
+                    final byte[] body = BinaryFormats.cbor().writeValueAsBytes(Arrays.asList(1, 2, 3));
+                    return Flux.fromIterable(objectMappers.apply(headers).readerFor(elementType).<T>readValues(body).readAll());
+                } catch (IOException e) {
+                    return Flux.error(e);
+                }
+            }
+        }
+
+        final DockingPoint<ReturnTypes.OkResponse> dockingPoint = new DockingPoint<ReturnTypes.OkResponse>(new FluxOnlyHttpResultProvider(), objectMapper)
+                .registerFormat(BinaryFormats.CBOR, BinaryFormats.cbor());
+
+        // act
+        final List<Integer> actual = new ArrayList<>();
+        try (Stream<Integer> stream = dockingPoint.callStream(HttpMethod.GET, "cbor", null, null, Integer.class)) {
+            stream.forEach(actual::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // assert
+        assertThat(actual)
+                .containsExactly(1, 2, 3);
+
+        assertThat(accepts)
+                .containsExactly("application/cbor, application/json;q=0.9");
+    }
+
+    @Test
+    void callStream_whenDeadlineExpired_shouldThrowGatewayTimeoutWithoutCalling() throws InterruptedException {
+        // arrange
+        final AtomicInteger calls = new AtomicInteger();
+        final class CountingHttpResultProvider implements HttpResultProvider, StreamingHttpResultProvider {
+            @Override
+            public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+                calls.incrementAndGet();
+                return new Result(HttpStatus.OK, "[]".getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public StreamingResult callStreaming(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+                calls.incrementAndGet();
+                return new StreamingResult(200, new HttpHeaders(), new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)), () -> {
+                });
+            }
+        }
+
+        final HttpResultProvider httpResultProvider = new CountingHttpResultProvider();
+        final DockingPoint<ReturnTypes.OkResponse> dockingPoint = new DockingPoint<>(httpResultProvider, objectMapper);
+
+        // act
+        final Throwable actual;
+        try (Deadline.Scope ignored = Deadline.after(Duration.ofMillis(1)).enter()) {
+            Thread.sleep(5);
+            actual = catchThrowable(() -> dockingPoint.callStream(HttpMethod.GET, "ok", null, null, Integer.class));
+        }
+
+        // assert
+        assertThat(actual)
+                .isInstanceOf(RestClientResponseException.class);
+
+        assertThat(((RestClientResponseException) actual).getRawStatusCode())
+                .isEqualTo(Deadline.EXCEEDED_STATUS_CODE);
+
+        assertThat(calls.get())
+                .isZero();
+    }
 }
@@ -0,0 +1,93 @@
+package com.erliotto.http.integration.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutorHttpResultProviderTests {
+    ExecutorService executor;
+
+    private static final class OkResponse extends DefaultHttpStatusHolder {
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        executor = VirtualThreads.newExecutor("test-blocking", 16);
+    }
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void callAsync_whenBlockingDelegate_shouldRunOnExecutorWithCallerDeadline() throws Exception {
+        // arrange
+        final Thread caller = Thread.currentThread();
+        final HttpResultProvider delegate = (httpMethod, url, httpHeaders, payload) -> {
+            final boolean offCaller = Thread.currentThread() != caller;
+            final boolean hasDeadline = Deadline.current() != null;
+            return new HttpResultProvider.Result(200, (offCaller + " " + hasDeadline).getBytes(StandardCharsets.UTF_8));
+        };
+
+        final ExecutorHttpResultProvider provider = new ExecutorHttpResultProvider(delegate, executor);
+
+        // act
+        final HttpResultProvider.Result actual;
+        try (Deadline.Scope scope = Deadline.after(Duration.ofSeconds(10)).enter()) {
+            actual = provider.callAsync(HttpMethod.GET, "http://localhost/items", null, null)
+                    .get(10, TimeUnit.SECONDS);
+        }
+
+        // assert
+        assertThat(actual.bodyAsString())
+                .isEqualTo("true true");
+    }
+
+    @Test
+    void callAll_whenBlockingDelegateBehindExecutor_shouldRunCallsConcurrently() {
+        // arrange
+        final int calls = 50;
+        final HttpResultProvider delegate = (httpMethod, url, httpHeaders, payload) -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return new HttpResultProvider.Result(200, new byte[0]);
+        };
+
+        final DockingPoint<OkResponse> dockingPoint =
+                new DockingPoint<OkResponse>(new ExecutorHttpResultProvider(delegate, executor), new ObjectMapper())
+                        .register(200, String.class, raw -> new OkResponse());
+
+        final List<BatchCall> batchCalls = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            batchCalls.add(new BatchCall(HttpMethod.GET, "http://localhost/items/" + i, null, null));
+        }
+
+        final long start = System.nanoTime();
+
+        // act
+        final List<BatchResult<OkResponse>> actual = dockingPoint.callAll(batchCalls, calls, executor);
+
+        // assert
+        assertThat(actual)
+                .allMatch(batchResult -> !batchResult.isFailed() && batchResult.response.isSuccess());
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start))
+                .isLessThan(Duration.ofMillis(200L * calls / 2));
+    }
+}
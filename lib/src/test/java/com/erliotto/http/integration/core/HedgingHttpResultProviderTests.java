@@ -0,0 +1,140 @@
+package com.erliotto.http.integration.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingHttpResultProviderTests {
+    private static final String URL = "http://localhost:8080/items";
+
+    ScheduledExecutorService scheduler;
+
+    // answers immediately while fast, otherwise hands out futures the test completes
+    private static final class ControlledHttpResultProvider implements AsyncHttpResultProvider {
+        private final List<CompletableFuture<HttpResultProvider.Result>> slowCalls = new CopyOnWriteArrayList<>();
+        private volatile boolean fast = true;
+        // slow calls after the first throw instead of returning a future
+        private volatile boolean hedgeThrows;
+
+        @Override
+        public CompletableFuture<HttpResultProvider.Result> callAsync(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+            if (fast) {
+                return CompletableFuture.completedFuture(new HttpResultProvider.Result(200, new byte[]{(byte) slowCalls.size()}));
+            }
+
+            if (hedgeThrows && !slowCalls.isEmpty()) {
+                throw new IllegalStateException("hedge broken");
+            }
+
+            final CompletableFuture<HttpResultProvider.Result> future = new CompletableFuture<>();
+            slowCalls.add(future);
+            return future;
+        }
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void afterEach() {
+        scheduler.shutdownNow();
+    }
+
+    private static void warmUp(HedgingHttpResultProvider provider) {
+        for (int i = 0; i < 40; i++) {
+            provider.call(HttpMethod.GET, URL, null, null);
+        }
+    }
+
+    @Test
+    void callAsync_whenPrimaryIsSlow_shouldHedgeTakeFirstResponseAndCancelOther() throws Exception {
+        // arrange
+        final ControlledHttpResultProvider delegate = new ControlledHttpResultProvider();
+        final HedgingHttpResultProvider provider = new HedgingHttpResultProvider(delegate, scheduler, 95, Duration.ofMillis(5), 10);
+        warmUp(provider);
+        delegate.fast = false;
+
+        // act
+        final CompletableFuture<HttpResultProvider.Result> actual = provider.callAsync(HttpMethod.GET, URL, null, null);
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (delegate.slowCalls.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        delegate.slowCalls.get(1).complete(new HttpResultProvider.Result(200, new byte[]{42}));
+
+        // assert
+        assertThat(actual.get(10, TimeUnit.SECONDS).body)
+                .containsExactly(42);
+
+        assertThat(delegate.slowCalls.get(0).isCancelled())
+                .isTrue();
+
+        assertThat(provider.getHedgedCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void callAsync_whenBudgetIsZero_shouldNotHedge() throws Exception {
+        // arrange
+        final ControlledHttpResultProvider delegate = new ControlledHttpResultProvider();
+        final HedgingHttpResultProvider provider = new HedgingHttpResultProvider(delegate, scheduler, 95, Duration.ofMillis(5), 0);
+        warmUp(provider);
+        delegate.fast = false;
+
+        // act
+        final CompletableFuture<HttpResultProvider.Result> actual = provider.callAsync(HttpMethod.GET, URL, null, null);
+        Thread.sleep(50);
+        delegate.slowCalls.get(0).complete(new HttpResultProvider.Result(200, new byte[]{7}));
+
+        // assert
+        assertThat(actual.get(10, TimeUnit.SECONDS).body)
+                .containsExactly(7);
+
+        assertThat(delegate.slowCalls)
+                .hasSize(1);
+
+        assertThat(provider.getHedgedCount())
+                .isEqualTo(0);
+    }
+
+    @Test
+    void callAsync_whenHedgeThrowsAndPrimaryFails_shouldCompleteExceptionally() throws Exception {
+        // arrange
+        final ControlledHttpResultProvider delegate = new ControlledHttpResultProvider();
+        final HedgingHttpResultProvider provider = new HedgingHttpResultProvider(delegate, scheduler, 95, Duration.ofMillis(5), 10);
+        warmUp(provider);
+        delegate.fast = false;
+        delegate.hedgeThrows = true;
+
+        // act
+        final CompletableFuture<HttpResultProvider.Result> actual = provider.callAsync(HttpMethod.GET, URL, null, null);
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (provider.getHedgedCount() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        delegate.slowCalls.get(0).completeExceptionally(new IllegalStateException("primary broken"));
+
+        // assert
+        assertThatThrownBy(() -> actual.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package com.erliotto.http.integration.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResponseDecoderTests {
+    public static final class Item {
+        public String id;
+    }
+
+    private static List<ResponseDecoder> decoders() {
+        return Arrays.asList(
+                new JacksonResponseDecoder(new ObjectMapper()),
+                JacksonResponseDecoder.afterburner(new ObjectMapper()),
+                new DslJsonResponseDecoder());
+    }
+
+    @Test
+    void read_whenBodyPresent_shouldDecodeWithEveryDecoder() throws Exception {
+        // arrange
+        final byte[] body = "{\"id\":\"decoded\"}".getBytes(StandardCharsets.UTF_8);
+
+        for (ResponseDecoder decoder : decoders()) {
+            final ResponseDecoder.Reader<Item> reader = decoder.readerFor(Item.class);
+
+            // act
+            final Item fromBytes = reader.read(body);
+            final Item fromStream = reader.read(new ByteArrayInputStream(body));
+
+            // assert
+            assertThat(fromBytes.id)
+                    .isEqualTo("decoded");
+
+            assertThat(fromStream.id)
+                    .isEqualTo("decoded");
+        }
+    }
+
+    @Test
+    void read_whenBodyNullOrEmpty_shouldThrowSameExceptionsWithEveryDecoder() {
+        for (ResponseDecoder decoder : decoders()) {
+            // arrange
+            final ResponseDecoder.Reader<Item> reader = decoder.readerFor(Item.class);
+
+            // act & assert
+            assertThatThrownBy(() -> reader.read((byte[]) null))
+                    .as(decoder.getClass().getSimpleName())
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            assertThatThrownBy(() -> reader.read((InputStream) null))
+                    .as(decoder.getClass().getSimpleName())
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            assertThatThrownBy(() -> reader.read(new byte[0]))
+                    .as(decoder.getClass().getSimpleName())
+                    .isInstanceOf(JsonProcessingException.class);
+
+            assertThatThrownBy(() -> reader.read(new ByteArrayInputStream(new byte[0])))
+                    .as(decoder.getClass().getSimpleName())
+                    .isInstanceOf(JsonProcessingException.class);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.erliotto.http.integration.core;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SerializedPayloadTests {
+    private static final String URL = "http://localhost/reference";
+
+    public static final class Item {
+        @JsonProperty("name")
+        public final String name;
+
+        Item(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class StubHttpResultProvider implements HttpResultProvider {
+        private final List<HttpHeaders> requests = new ArrayList<>();
+        private final List<Object> payloads = new ArrayList<>();
+
+        @Override
+        public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
+            requests.add(httpHeaders);
+            payloads.add(payload);
+            return new Result(200, null, null);
+        }
+    }
+
+    @Test
+    void json_whenSerializedTwiceOnSameThread_shouldReturnIndependentExactlySizedBytes() throws JsonProcessingException {
+        // arrange
+        final ObjectMapper objectMapper = new ObjectMapper();
+
+        // act
+        final SerializedPayload first = SerializedPayload.json(objectMapper, new Item("first"));
+        final SerializedPayload second = SerializedPayload.json(objectMapper, new Item("second"));
+
+        // assert
+        assertThat(new String(first.getBytes(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"name\":\"first\"}");
+        assertThat(new String(second.getBytes(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"name\":\"second\"}");
+        assertThat(first.getContentType())
+                .isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void call_whenSamePayloadSentTwiceCompressed_shouldGzipOnceAndKeepContentType() throws JsonProcessingException {
+        // arrange
+        final StubHttpResultProvider delegate = new StubHttpResultProvider();
+        final CompressingHttpResultProvider provider = new CompressingHttpResultProvider(delegate, new ObjectMapper(),
+                Collections.emptyList(), 0);
+        final SerializedPayload payload = SerializedPayload.of("{\"name\":\"shared\"}".getBytes(StandardCharsets.UTF_8),
+                MediaType.APPLICATION_JSON);
+
+        // act
+        provider.call(HttpMethod.POST, URL, null, payload);
+        provider.call(HttpMethod.POST, URL, null, payload);
+
+        // assert
+        assertThat(delegate.payloads.get(0))
+                .isInstanceOf(byte[].class)
+                .isSameAs(delegate.payloads.get(1));
+        assertThat(delegate.requests.get(0).getContentType())
+                .isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(delegate.requests.get(0).getFirst(HttpHeaders.CONTENT_ENCODING))
+                .isEqualTo(ContentEncoding.GZIP);
+    }
+}
@@ -5,8 +5,12 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @RestController
 public class TestOnlyRestController {
 
@@ -44,4 +48,20 @@ public class TestOnlyRestController {
     public ReturnTypes.Json getJson() {
         return new ReturnTypes.Json(102, "json name");
     }
+
+    @GetMapping(value = "getSlowString")
+    public String getSlowString() throws InterruptedException {
+        Thread.sleep(2000);
+        return "slow string value";
+    }
+
+    @GetMapping(value = "getJsonArray", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<ReturnTypes.Json> getJsonArray(@RequestParam("count") int count) {
+        final List<ReturnTypes.Json> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new ReturnTypes.Json(i, "item " + i));
+        }
+
+        return items;
+    }
 }
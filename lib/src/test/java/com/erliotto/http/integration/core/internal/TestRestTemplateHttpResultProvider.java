@@ -20,9 +20,9 @@ public final class TestRestTemplateHttpResultProvider implements HttpResultProvi
     @Override
     public Result call(HttpMethod httpMethod, String url, HttpHeaders httpHeaders, Object payload) {
         final Map<String, ?> urlVariables = new HashMap<>();
-        final Class respType = String.class;
+        final Class respType = byte[].class;
 
-        final ResponseEntity<String> responseEntity = testRestTemplate.exchange(url, httpMethod, new HttpEntity(payload), respType, urlVariables);
-        return new HttpResultProvider.Result(responseEntity.getStatusCode(), responseEntity.getBody());
+        final ResponseEntity<byte[]> responseEntity = testRestTemplate.exchange(url, httpMethod, new HttpEntity(payload), respType, urlVariables);
+        return new HttpResultProvider.Result(responseEntity.getStatusCodeValue(), responseEntity.getHeaders(), responseEntity.getBody());
     }
 }